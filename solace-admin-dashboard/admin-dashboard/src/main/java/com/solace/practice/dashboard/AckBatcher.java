@@ -0,0 +1,85 @@
+package com.solace.practice.dashboard;
+
+import com.solace.practice.metrics.LatencyHistogram;
+import com.solace.practice.transport.InboundMessage;
+
+/**
+ * Holds back the acks of processed messages and sends them in batches:
+ * once {@code batchSize} are waiting, or once the oldest has waited
+ * {@code intervalNanos}, whichever comes first.
+ *
+ * A message is only added after it has been processed, so an ack never
+ * covers unfinished work. Solace acks are per message rather than
+ * cumulative, so a crash can only cause redelivery of messages still held
+ * here, never the loss of one that was not processed. The age of the oldest
+ * held message is published so the consumer can report how far acks lag.
+ *
+ * Owned by one worker thread; only {@link #oldestPendingNanos()} may be read
+ * from other threads.
+ */
+public class AckBatcher {
+
+    private final InboundMessage[] pending;
+    private final long[] processedNanos;
+    private final long intervalNanos;
+    private final LatencyHistogram batchSizes;
+    private final LatencyHistogram ackLatency;
+    private int size;
+    // System.nanoTime() when the oldest held message was added, 0 when none
+    private volatile long oldestPendingNanos;
+
+    /**
+     * @param batchSizes records the number of messages in every batch
+     * @param ackLatency records, per message, the time from processing to ack
+     */
+    public AckBatcher(int batchSize, long intervalNanos, LatencyHistogram batchSizes, LatencyHistogram ackLatency) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be at least 1: " + batchSize);
+        }
+        this.pending = new InboundMessage[batchSize];
+        this.processedNanos = new long[batchSize];
+        this.intervalNanos = intervalNanos;
+        this.batchSizes = batchSizes;
+        this.ackLatency = ackLatency;
+    }
+
+    /** Adds a processed message, acking the batch if it is now full. */
+    public void add(InboundMessage message, long nowNanos) {
+        if (size == 0) {
+            oldestPendingNanos = nowNanos;
+        }
+        pending[size] = message;
+        processedNanos[size] = nowNanos;
+        size++;
+        if (size == pending.length) {
+            flush(nowNanos);
+        }
+    }
+
+    /** Acks the batch if its oldest message has waited long enough. */
+    public void flushIfDue(long nowNanos) {
+        if (size > 0 && nowNanos - processedNanos[0] >= intervalNanos) {
+            flush(nowNanos);
+        }
+    }
+
+    /** Acks everything held. */
+    public void flush(long nowNanos) {
+        if (size == 0) {
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            pending[i].ack();
+            ackLatency.recordValue(nowNanos - processedNanos[i]);
+            pending[i] = null;
+        }
+        batchSizes.recordValue(size);
+        size = 0;
+        oldestPendingNanos = 0;
+    }
+
+    /** When the oldest unacked message was processed (System.nanoTime), or 0 if none is held. */
+    public long oldestPendingNanos() {
+        return oldestPendingNanos;
+    }
+}
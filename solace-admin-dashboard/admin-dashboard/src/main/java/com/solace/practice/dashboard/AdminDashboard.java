@@ -0,0 +1,172 @@
+package com.solace.practice.dashboard;
+
+import com.solace.practice.log.EventLog;
+import com.solace.practice.metrics.LatencyHistogram;
+import com.solace.practice.transport.Transport;
+import com.solace.practice.transport.Transports;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPProperties;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AdminDashboard {
+
+    public static void main(String[] args) {
+
+        System.out.println("=== Solace Admin Dashboard Starting ===");
+
+        DashboardConfig config = DashboardConfig.fromSystemProperties();
+        System.out.println("Consumer profile: " + config);
+
+        Transport transport = null;
+
+        try {
+            // Step 1: Create properties object
+            JCSMPProperties properties = new JCSMPProperties();
+
+            // Step 2: Set connection properties
+            properties.setProperty(JCSMPProperties.HOST, config.getHost());
+            properties.setProperty(JCSMPProperties.VPN_NAME, "default");
+            properties.setProperty(JCSMPProperties.USERNAME, "admin");
+            properties.setProperty(JCSMPProperties.PASSWORD, "admin");
+
+            // Re-add subscriptions automatically after a reconnect
+            properties.setProperty(JCSMPProperties.REAPPLY_SUBSCRIPTIONS, true);
+
+            // Step 3: Connect (host "loopback" uses an in-process broker instead)
+            transport = Transports.connect(properties);
+            System.out.println("✓ Connected to Solace broker");
+
+            // Step 4: Provision the queue and route order topics into it
+            transport.provisionQueue(config.getQueueName());
+            System.out.println("✓ Queue provisioned: " + config.getQueueName());
+            transport.addSubscription(config.getQueueName(), config.getSubscription());
+            System.out.println("✓ Subscribed to: " + config.getSubscription());
+
+            // Step 5: Consume until stopped
+            runConsumer(transport, config);
+
+        } catch (Exception e) {
+            System.out.println("Error: " + e.getMessage());
+            e.printStackTrace();
+
+        } finally {
+            // Step 6: Cleanup
+            if (transport != null) {
+                transport.close();
+            }
+            System.out.println("Session closed.");
+        }
+    }
+
+    /**
+     * Runs the consumer until the configured duration elapses or the JVM is
+     * asked to stop, printing the consumption rate once per second and the
+     * full dashboard every refresh interval. With a checkpoint file, metrics
+     * are restored from it before the first order is consumed. With an HTTP
+     * port, browsers can follow the dashboard live as well.
+     */
+    private static void runConsumer(Transport transport, DashboardConfig config)
+            throws JCSMPException, InterruptedException, IOException {
+        CountDownLatch stopRequested = new CountDownLatch(1);
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            stopRequested.countDown();
+            try {
+                // Give the consumer time to finish in-flight orders and close the flow
+                stopped.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "dashboard-shutdown"));
+
+        try (EventLog events = new EventLog(64 * 1024)) {
+            EventLog.Category received = events.category("received", config.getReceivedLogSampleEvery());
+            Path checkpointFile = config.getCheckpointFile().isEmpty() ? null : Paths.get(config.getCheckpointFile());
+            MetricsTracker metrics = restoreMetrics(config, checkpointFile);
+            OrderHandler handler = (order, message) -> {
+                metrics.recordOrder(order, message.getSendTimeNanos());
+                events.log(received, "📥 Received: ", order);
+            };
+
+            // Resources close in reverse, so the last checkpoint has every order the consumer processed
+            try (MetricsCheckpointer checkpointer = checkpointFile == null ? null
+                    : new MetricsCheckpointer(metrics, checkpointFile, config.getCheckpointSeconds());
+                 LiveDashboardServer server = config.getHttpPort() == 0 ? null
+                         : new LiveDashboardServer(metrics, config.getHttpPort(), config.getMaxFramesPerSecond());
+                 OrderConsumer consumer = new OrderConsumer(transport, config, handler, events)) {
+                if (checkpointer != null) {
+                    System.out.println("✓ Checkpointing to " + checkpointFile + " every "
+                            + config.getCheckpointSeconds() + "s");
+                }
+                if (server != null) {
+                    System.out.println("✓ Live dashboard at http://localhost:" + server.getPort() + "/");
+                }
+                consumer.start();
+                System.out.println("✓ Flow receiver started - listening for orders...");
+                System.out.println("Dashboard is running. Press Ctrl+C to stop.");
+
+                long start = System.nanoTime();
+                metrics.tick(start);
+                long lastProcessed = 0;
+                long second = 0;
+                while (config.getDurationSeconds() == 0 || second < config.getDurationSeconds()) {
+                    if (stopRequested.await(1, TimeUnit.SECONDS)) {
+                        break;
+                    }
+                    second++;
+                    metrics.tick(System.nanoTime());
+                    long processed = consumer.getProcessed();
+                    System.out.printf("[%4ds] %,10d orders/s | total %,d | failed %,d | queued %,d | ack lag %,dms%n",
+                            second, processed - lastProcessed, processed, consumer.getFailed(),
+                            consumer.getQueued(), consumer.getOldestUnackedMillis());
+                    lastProcessed = processed;
+                    if (second % config.getRefreshSeconds() == 0) {
+                        System.out.println(DashboardPrinter.render(metrics.snapshot()));
+                    }
+                }
+
+                double seconds = (System.nanoTime() - start) / 1e9;
+                System.out.printf("%nConsumed %,d orders in %.1fs (avg %,.0f orders/s, %,d failed,"
+                                + " %,d backpressure waits)%n", consumer.getProcessed(), seconds,
+                        consumer.getProcessed() / seconds, consumer.getFailed(), consumer.getBackpressureWaits());
+                LatencyHistogram.Snapshot batches = consumer.getAckBatchSizes();
+                System.out.printf("Ack batches: %,d, size p50=%d p99=%d max=%d%n", batches.getTotalCount(),
+                        batches.getValueAtPercentile(50), batches.getValueAtPercentile(99), batches.getMaxValue());
+                System.out.println("Processed-to-ack latency: " + consumer.getAckLatency().formatMicros());
+            }
+            // Workers have finished, so every processed order is counted
+            System.out.println(DashboardPrinter.render(metrics.snapshot()));
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    /**
+     * A tracker holding what the checkpoint file saved, if there is one. A
+     * file that cannot be read is reported and skipped, since a partly
+     * restored tracker would be wrong; the next checkpoint replaces it.
+     */
+    private static MetricsTracker restoreMetrics(DashboardConfig config, Path checkpointFile) {
+        MetricsTracker metrics = new MetricsTracker(config.getTopK(), config.getOrderStateCapacity());
+        if (checkpointFile == null) {
+            return metrics;
+        }
+        long restoreStart = System.nanoTime();
+        try {
+            if (MetricsCheckpointer.restore(checkpointFile, metrics)) {
+                MetricsTracker.Snapshot restored = metrics.snapshot();
+                System.out.printf("✓ Restored %,d orders (%,d live) from %s in %,dms%n",
+                        restored.getTotalOrders(), restored.getLiveOrders(), checkpointFile,
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - restoreStart));
+            }
+            return metrics;
+        } catch (IOException e) {
+            System.out.println("✗ Not restoring " + checkpointFile + ", starting from zero: " + e.getMessage());
+            return new MetricsTracker(config.getTopK(), config.getOrderStateCapacity());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.solace.practice.dashboard;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Approximate per-key totals in fixed memory, however many distinct keys
+ * there are.
+ *
+ * Each of {@code depth} rows maps a key to one of {@code width} counters
+ * with its own hash. An add increments the key's counter in every row; the
+ * estimate is the smallest of them. Estimates never fall short of the true
+ * total and overshoot it by at most about e/width of everything added, with
+ * probability 1 - e^-depth.
+ *
+ * Counters are atomic, so any number of threads can add concurrently.
+ */
+public class CountMinSketch {
+
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray counters;
+
+    /** @param width counters per row, rounded up to a power of two */
+    public CountMinSketch(int depth, int width) {
+        if (depth < 1 || width < 1) {
+            throw new IllegalArgumentException("depth and width must be positive: " + depth + "x" + width);
+        }
+        int rowSize = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.widthMask = rowSize - 1;
+        this.counters = new AtomicLongArray(depth * rowSize);
+    }
+
+    /** Adds {@code amount} to the key with this {@link KeyHash} and returns the key's new estimate. */
+    public long add(long hash, long amount) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.addAndGet(index(hash, row), amount));
+        }
+        return estimate;
+    }
+
+    public long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /** Writes the dimensions and every counter; adds made meanwhile may or may not be included. */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(depth);
+        out.writeInt(widthMask + 1);
+        for (int i = 0; i < counters.length(); i++) {
+            out.writeLong(counters.get(i));
+        }
+    }
+
+    /**
+     * Adds the counters written by {@link #writeTo}.
+     *
+     * @throws IllegalArgumentException if they came from a sketch of another size
+     */
+    public void readFrom(ByteBuffer in) {
+        int savedDepth = in.getInt();
+        int savedWidth = in.getInt();
+        if (savedDepth != depth || savedWidth != widthMask + 1) {
+            throw new IllegalArgumentException("Sketch is " + depth + "x" + (widthMask + 1) + ", saved one is "
+                    + savedDepth + "x" + savedWidth);
+        }
+        for (int i = 0; i < counters.length(); i++) {
+            counters.addAndGet(i, in.getLong());
+        }
+    }
+
+    private int index(long hash, int row) {
+        // Each row mixes the hash afresh (MurmurHash3's finalizer). Deriving rows as h1 + row * h2
+        // made keys that share h1 and h2 modulo the width collide in every row, about 1 / width^2
+        // per pair instead of 1 / width^depth, and such a key's estimate is another key's total.
+        long h = hash + row * 0x9E3779B97F4A7C15L;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return row * (widthMask + 1) + ((int) h & widthMask);
+    }
+}
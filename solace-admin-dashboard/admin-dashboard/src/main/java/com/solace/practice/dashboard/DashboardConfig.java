@@ -0,0 +1,168 @@
+package com.solace.practice.dashboard;
+
+/**
+ * Dashboard settings, read from system properties so they can be passed
+ * straight through mvn exec:java, e.g.
+ * <pre>
+ *   mvn exec:java -Dexec.mainClass=com.solace.practice.dashboard.AdminDashboard \
+ *       -Ddashboard.workers=8
+ * </pre>
+ */
+public class DashboardConfig {
+
+    private final String host;
+    private final String queueName;
+    private final String subscription;
+    private final int workers;
+    private final int workerQueueSize;
+    private final long durationSeconds;
+    private final long receivedLogSampleEvery;
+    private final int ackBatchSize;
+    private final long ackIntervalMillis;
+    private final long refreshSeconds;
+    private final int topK;
+    private final long orderStateCapacity;
+    private final String checkpointFile;
+    private final long checkpointSeconds;
+    private final int httpPort;
+    private final int maxFramesPerSecond;
+
+    public DashboardConfig(String host, String queueName, String subscription, int workers, int workerQueueSize,
+                           long durationSeconds, long receivedLogSampleEvery, int ackBatchSize,
+                           long ackIntervalMillis, long refreshSeconds, int topK,
+                           long orderStateCapacity, String checkpointFile, long checkpointSeconds,
+                           int httpPort, int maxFramesPerSecond) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("dashboard.workers must be at least 1: " + workers);
+        }
+        if (workerQueueSize < 2) {
+            throw new IllegalArgumentException("dashboard.workerQueueSize must be at least 2: " + workerQueueSize);
+        }
+        if (durationSeconds < 0) {
+            throw new IllegalArgumentException("dashboard.durationSeconds must not be negative: " + durationSeconds);
+        }
+        if (receivedLogSampleEvery < 1) {
+            throw new IllegalArgumentException("dashboard.receivedLogSampleEvery must be at least 1: "
+                    + receivedLogSampleEvery);
+        }
+        if (ackBatchSize < 1) {
+            throw new IllegalArgumentException("dashboard.ackBatchSize must be at least 1: " + ackBatchSize);
+        }
+        if (ackIntervalMillis < 1) {
+            throw new IllegalArgumentException("dashboard.ackIntervalMillis must be positive: " + ackIntervalMillis);
+        }
+        if (refreshSeconds < 1) {
+            throw new IllegalArgumentException("dashboard.refreshSeconds must be at least 1: " + refreshSeconds);
+        }
+        if (topK < 1) {
+            throw new IllegalArgumentException("dashboard.topK must be at least 1: " + topK);
+        }
+        if (orderStateCapacity < 1) {
+            throw new IllegalArgumentException("dashboard.orderStateCapacity must be at least 1: "
+                    + orderStateCapacity);
+        }
+        if (checkpointSeconds < 1) {
+            throw new IllegalArgumentException("dashboard.checkpointSeconds must be at least 1: " + checkpointSeconds);
+        }
+        if (httpPort < 0 || httpPort > 65535) {
+            throw new IllegalArgumentException("dashboard.httpPort must be between 0 and 65535: " + httpPort);
+        }
+        if (maxFramesPerSecond < 1 || maxFramesPerSecond > 1000) {
+            throw new IllegalArgumentException("dashboard.maxFramesPerSecond must be between 1 and 1000: "
+                    + maxFramesPerSecond);
+        }
+        this.host = host;
+        this.queueName = queueName;
+        this.subscription = subscription;
+        this.workers = workers;
+        this.workerQueueSize = workerQueueSize;
+        this.durationSeconds = durationSeconds;
+        this.receivedLogSampleEvery = receivedLogSampleEvery;
+        this.ackBatchSize = ackBatchSize;
+        this.ackIntervalMillis = ackIntervalMillis;
+        this.refreshSeconds = refreshSeconds;
+        this.topK = topK;
+        this.orderStateCapacity = orderStateCapacity;
+        this.checkpointFile = checkpointFile;
+        this.checkpointSeconds = checkpointSeconds;
+        this.httpPort = httpPort;
+        this.maxFramesPerSecond = maxFramesPerSecond;
+    }
+
+    public static DashboardConfig fromSystemProperties() {
+        return new DashboardConfig(
+                System.getProperty("dashboard.host", "localhost:55556"),
+                System.getProperty("dashboard.queue", "admin-dashboard-orders"),
+                System.getProperty("dashboard.subscription", "order/>"),
+                Integer.getInteger("dashboard.workers", Runtime.getRuntime().availableProcessors()),
+                Integer.getInteger("dashboard.workerQueueSize", 8192),
+                Long.getLong("dashboard.durationSeconds", 0L),
+                Long.getLong("dashboard.receivedLogSampleEvery", 10_000L),
+                Integer.getInteger("dashboard.ackBatchSize", 256),
+                Long.getLong("dashboard.ackIntervalMillis", 50L),
+                Long.getLong("dashboard.refreshSeconds", 10L),
+                Integer.getInteger("dashboard.topK", 5),
+                Long.getLong("dashboard.orderStateCapacity", 1_000_000L),
+                System.getProperty("dashboard.checkpointFile", ""),
+                Long.getLong("dashboard.checkpointSeconds", 30L),
+                Integer.getInteger("dashboard.httpPort", 0),
+                Integer.getInteger("dashboard.maxFramesPerSecond", 4));
+    }
+
+    public String getHost() { return host; }
+
+    public String getQueueName() { return queueName; }
+
+    /** Topic subscription added to the queue; the default covers every order topic version. */
+    public String getSubscription() { return subscription; }
+
+    /** Number of worker threads orders are partitioned across by orderId. */
+    public int getWorkers() { return workers; }
+
+    /** Messages each worker may have waiting before the flow is held back. */
+    public int getWorkerQueueSize() { return workerQueueSize; }
+
+    /** How long to run; 0 runs until Ctrl+C. */
+    public long getDurationSeconds() { return durationSeconds; }
+
+    /** Print one received order in this many; the rest are only counted. */
+    public long getReceivedLogSampleEvery() { return receivedLogSampleEvery; }
+
+    /** Processed messages each worker acks together. */
+    public int getAckBatchSize() { return ackBatchSize; }
+
+    /** Longest a processed message waits for its batch to be acked. */
+    public long getAckIntervalMillis() { return ackIntervalMillis; }
+
+    /** Seconds between full dashboard printouts. */
+    public long getRefreshSeconds() { return refreshSeconds; }
+
+    /** Customers and products listed in each top ranking. */
+    public int getTopK() { return topK; }
+
+    /** Most live orders whose state is kept; 43 to 85 bytes each off-heap, depending on rounding. */
+    public long getOrderStateCapacity() { return orderStateCapacity; }
+
+    /** File metrics are checkpointed to and restored from on startup; empty to start from zero every time. */
+    public String getCheckpointFile() { return checkpointFile; }
+
+    /** Seconds between checkpoints. */
+    public long getCheckpointSeconds() { return checkpointSeconds; }
+
+    /** Port of the live browser dashboard; 0 to run without it. */
+    public int getHttpPort() { return httpPort; }
+
+    /** Most updates per second the live dashboard pushes to each browser. */
+    public int getMaxFramesPerSecond() { return maxFramesPerSecond; }
+
+    @Override
+    public String toString() {
+        return String.format("queue=%s, subscription=%s, workers=%d, workerQueueSize=%d, acks=%d/%dms,"
+                        + " refresh=%ds, orderState=%,d, checkpoint=%s, http=%s, duration=%s, host=%s",
+                queueName, subscription, workers, workerQueueSize, ackBatchSize, ackIntervalMillis, refreshSeconds,
+                orderStateCapacity,
+                checkpointFile.isEmpty() ? "off" : checkpointFile + " every " + checkpointSeconds + "s",
+                httpPort == 0 ? "off" : httpPort + " at " + maxFramesPerSecond + " frames/s",
+                durationSeconds == 0 ? "until stopped" : durationSeconds + "s", host);
+    }
+}
@@ -0,0 +1,167 @@
+package com.solace.practice.dashboard;
+
+import com.solace.practice.metrics.LatencyHistogram;
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Renders the console dashboard from a {@link MetricsTracker.Snapshot}.
+ * Empty OTHER slots are left out.
+ */
+public final class DashboardPrinter {
+
+    private static final String RULE = "================================================================================";
+
+    private DashboardPrinter() {}
+
+    public static String render(MetricsTracker.Snapshot metrics) {
+        StringBuilder out = new StringBuilder(1024);
+        out.append('\n').append(RULE).append('\n');
+        out.append("📊 REAL-TIME ADMIN DASHBOARD\n");
+        out.append(RULE).append("\n\n");
+
+        out.append("┌─ OVERALL METRICS\n");
+        out.append(String.format("│ Total Orders: %,d%n", metrics.getTotalOrders()));
+        out.append(String.format("│ Total Revenue: $%,.2f%n", metrics.getTotalRevenue()));
+        out.append(String.format("│ Live Orders: %,d (%,d MB off-heap", metrics.getLiveOrders(),
+                metrics.getOrderStateBytes() >> 20));
+        if (metrics.getUntrackedOrders() > 0) {
+            out.append(String.format(", %,d untracked: store full", metrics.getUntrackedOrders()));
+        }
+        out.append(")\n");
+        SlidingWindowRates.Snapshot rates = metrics.getRates();
+        out.append("│ Orders/sec: ");
+        for (int w = 0; w < SlidingWindowRates.windowCount(); w++) {
+            out.append(String.format("%s%s %,.0f", w == 0 ? "" : " | ",
+                    SlidingWindowRates.label(w), rates.getOrdersPerSecond(w)));
+        }
+        out.append("\n│ Revenue/sec: ");
+        for (int w = 0; w < SlidingWindowRates.windowCount(); w++) {
+            out.append(String.format("%s%s $%,.2f", w == 0 ? "" : " | ",
+                    SlidingWindowRates.label(w), rates.getRevenuePerSecond(w)));
+        }
+        out.append('\n');
+        MetricsTracker.Distinct customers = metrics.getDistinctCustomers();
+        out.append(String.format("│ Distinct customers: ~%,d", customers.getTotal()));
+        for (int w = 0; w < DistinctWindows.windowCount(); w++) {
+            out.append(String.format(" | %s ~%,d", DistinctWindows.label(w), customers.getByWindow(w)));
+        }
+        out.append('\n');
+
+        out.append("\n├─ BY REGION\n");
+        for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+            appendCount(out, OrderSlots.regionLabel(r), metrics.getOrdersByRegion(r), metrics.getRevenueByRegion(r),
+                    customers.getByRegion(r), r == OrderSlots.REGION_SLOTS - 1);
+        }
+
+        out.append("\n├─ BY STATUS\n");
+        for (int s = 0; s < OrderSlots.STATUS_SLOTS; s++) {
+            appendCount(out, OrderSlots.statusLabel(s), metrics.getOrdersByStatus(s), metrics.getRevenueByStatus(s),
+                    customers.getByStatus(s), s == OrderSlots.STATUS_SLOTS - 1);
+        }
+
+        out.append("\n├─ BY PRIORITY\n");
+        for (int p = 0; p < OrderSlots.PRIORITY_SLOTS; p++) {
+            appendCount(out, OrderSlots.priorityLabel(p), metrics.getOrdersByPriority(p),
+                    metrics.getRevenueByPriority(p), -1, p == OrderSlots.PRIORITY_SLOTS - 1);
+        }
+
+        out.append("\n├─ ORDERS NOW IN EACH STATUS\n");
+        for (int s = 0; s < OrderSlots.STATUS_SLOTS; s++) {
+            long now = metrics.getCurrentByStatus(s);
+            if (s == OrderSlots.STATUS_SLOTS - 1 && now == 0) {
+                continue;
+            }
+            out.append(String.format("│ %s: %,d (", OrderSlots.statusLabel(s), now));
+            for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+                long inRegion = metrics.getCurrentByStatusAndRegion(s, r);
+                if (r < OrderSlots.REGION_SLOTS - 1 || inRegion != 0) {
+                    out.append(String.format("%s%s %,d", r == 0 ? "" : ", ", OrderSlots.regionLabel(r), inRegion));
+                }
+            }
+            out.append(" | ");
+            for (int p = 0; p < OrderSlots.PRIORITY_SLOTS; p++) {
+                long atPriority = metrics.getCurrentByStatusAndPriority(s, p);
+                if (p < OrderSlots.PRIORITY_SLOTS - 1 || atPriority != 0) {
+                    out.append(String.format("%s%s %,d", p == 0 ? "" : ", ", OrderSlots.priorityLabel(p),
+                            atPriority));
+                }
+            }
+            out.append(")\n");
+        }
+
+        out.append("\n├─ ORDER SIZE BY REGION (p50 / p90 / p99)\n");
+        for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+            appendSizes(out, OrderSlots.regionLabel(r), metrics.getAmountCentsByRegion(r),
+                    metrics.getQuantitiesByRegion(r));
+        }
+
+        out.append("\n├─ ORDER SIZE BY PRIORITY (p50 / p90 / p99)\n");
+        for (int p = 0; p < OrderSlots.PRIORITY_SLOTS; p++) {
+            appendSizes(out, OrderSlots.priorityLabel(p), metrics.getAmountCentsByPriority(p),
+                    metrics.getQuantitiesByPriority(p));
+        }
+
+        out.append("\n├─ PUBLISH-TO-CONSUME LATENCY\n");
+        appendLatency(out, "ALL", metrics.getLatency());
+        for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+            appendLatency(out, OrderSlots.regionLabel(r), metrics.getLatencyByRegion(r));
+        }
+        for (int p = 0; p < OrderSlots.PRIORITY_SLOTS; p++) {
+            appendLatency(out, OrderSlots.priorityLabel(p), metrics.getLatencyByPriority(p));
+        }
+
+        out.append("\n├─ TOP CUSTOMERS\n");
+        appendTop(out, metrics.getTopCustomersByOrders(), metrics.getTopCustomersByRevenue());
+
+        out.append("\n└─ TOP PRODUCTS\n");
+        appendTop(out, metrics.getTopProductsByOrders(), metrics.getTopProductsByRevenue());
+        return out.toString();
+    }
+
+    private static void appendSizes(StringBuilder out, String label, LatencyHistogram.Snapshot amountCents,
+                                    LatencyHistogram.Snapshot quantities) {
+        if (amountCents.getTotalCount() == 0) {
+            return;
+        }
+        out.append(String.format("│ %s: $%,.2f / $%,.2f / $%,.2f, qty %d / %d / %d%n", label,
+                amountCents.getValueAtPercentile(50) / 100.0, amountCents.getValueAtPercentile(90) / 100.0,
+                amountCents.getValueAtPercentile(99) / 100.0, quantities.getValueAtPercentile(50),
+                quantities.getValueAtPercentile(90), quantities.getValueAtPercentile(99)));
+    }
+
+    private static void appendLatency(StringBuilder out, String label, LatencyHistogram.Snapshot latency) {
+        if (latency.getTotalCount() > 0) {
+            out.append("│ ").append(label).append(": ").append(latency.formatMicros()).append('\n');
+        }
+    }
+
+    private static void appendTop(StringBuilder out, List<HeavyHitters.Entry> byOrders,
+                                  List<HeavyHitters.Entry> byRevenue) {
+        out.append("│ By orders: ");
+        for (int i = 0; i < byOrders.size(); i++) {
+            HeavyHitters.Entry entry = byOrders.get(i);
+            out.append(String.format("%s%s ~%,d", i == 0 ? "" : ", ", entry.getKey(), entry.getEstimate()));
+        }
+        out.append("\n│ By revenue: ");
+        for (int i = 0; i < byRevenue.size(); i++) {
+            HeavyHitters.Entry entry = byRevenue.get(i);
+            out.append(String.format("%s%s ~$%,.2f", i == 0 ? "" : ", ", entry.getKey(),
+                    FixedPoint.toDecimal(entry.getEstimate())));
+        }
+        out.append('\n');
+    }
+
+    /** @param customers distinct customers, or -1 if not tracked for this breakdown */
+    private static void appendCount(StringBuilder out, String label, long count, BigDecimal revenue,
+                                    long customers, boolean otherSlot) {
+        if (otherSlot && count == 0) {
+            return;
+        }
+        out.append(String.format("│ %s: %,d orders, $%,.2f revenue", label, count, revenue));
+        if (customers >= 0) {
+            out.append(String.format(", ~%,d customers", customers));
+        }
+        out.append('\n');
+    }
+}
@@ -0,0 +1,87 @@
+package com.solace.practice.dashboard;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distinct keys over the last 1, 15 and 60 minutes.
+ *
+ * Keys go into a {@link HyperLogLog} for the current minute; a window's
+ * count is the estimate of the merge of its minutes. Because the current
+ * minute is only partly over, a window of N minutes covers between N and
+ * N + 1 minutes of history.
+ *
+ * The ring has three more minutes than the longest window. When a minute
+ * ends, {@link #tick} moves adds on to the next bucket, which was emptied a
+ * minute earlier, and empties the one after it. An add that saw the old
+ * current bucket just before the switch still lands in a live bucket, and
+ * the bucket emptied is one past the oldest any reader could be merging,
+ * so nothing is ever cleared while in use.
+ *
+ * Ticks must come from one thread. Adds and reads may come from any thread.
+ */
+public class DistinctWindows {
+
+    private static final int[] WINDOW_MINUTES = {1, 15, 60};
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final HyperLogLog[] minutes = new HyperLogLog[WINDOW_MINUTES[WINDOW_MINUTES.length - 1] + 3];
+    // Index of the bucket for the current minute, and how many minutes have ended
+    private volatile int current;
+    private volatile long completedMinutes;
+    private long minuteStartNanos;
+    private boolean started;
+
+    public DistinctWindows() {
+        for (int i = 0; i < minutes.length; i++) {
+            minutes[i] = new HyperLogLog();
+        }
+    }
+
+    public void add(long hash) {
+        minutes[current].add(hash);
+    }
+
+    /** Moves on to a new minute if the current one has ended; call from a single thread. */
+    public void tick(long nowNanos) {
+        if (!started) {
+            minuteStartNanos = nowNanos;
+            started = true;
+            return;
+        }
+        while (nowNanos - minuteStartNanos >= MINUTE_NANOS) {
+            int next = (current + 1) % minutes.length;
+            current = next;
+            minutes[(next + 1) % minutes.length].clear();
+            completedMinutes++;
+            minuteStartNanos += MINUTE_NANOS;
+        }
+    }
+
+    public static int windowCount() {
+        return WINDOW_MINUTES.length;
+    }
+
+    /** "15m" style label for a window. */
+    public static String label(int window) {
+        return WINDOW_MINUTES[window] + "m";
+    }
+
+    /** Estimated distinct keys in each window, indexed like {@link #label}. */
+    public long[] estimates() {
+        int newest = current;
+        long available = Math.min(completedMinutes, WINDOW_MINUTES[WINDOW_MINUTES.length - 1]);
+        long[] estimates = new long[WINDOW_MINUTES.length];
+        HyperLogLog union = new HyperLogLog();
+        union.merge(minutes[newest]);
+        int merged = 0;
+        for (int w = 0; w < WINDOW_MINUTES.length; w++) {
+            // Windows are shortest first, so each extends the previous union
+            while (merged < Math.min(WINDOW_MINUTES[w], available)) {
+                merged++;
+                union.merge(minutes[Math.floorMod(newest - merged, minutes.length)]);
+            }
+            estimates[w] = union.estimate();
+        }
+        return estimates;
+    }
+}
@@ -0,0 +1,50 @@
+package com.solace.practice.dashboard;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+
+/**
+ * Money amounts as a long count of millionths, the same scale the binary
+ * order layout uses.
+ *
+ * Revenue is summed in these units so the metrics path never allocates a
+ * BigDecimal per order; amounts only become BigDecimal again for display.
+ */
+public final class FixedPoint {
+
+    /** Decimal places kept; one unit is 0.000001. */
+    public static final int SCALE = 6;
+
+    private static final long[] POWERS_OF_TEN = {1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L};
+
+    private FixedPoint() {}
+
+    /**
+     * Converts an amount to units. Amounts with more than {@link #SCALE}
+     * decimal places are rounded half-even.
+     *
+     * @throws ArithmeticException if the amount does not fit a long in units
+     */
+    public static long toUnits(BigDecimal amount) {
+        int scale = amount.scale();
+        // Below 19 digits the unscaled value fits a long, so no intermediate BigDecimal is needed
+        if (scale >= 0 && scale <= SCALE && amount.precision() < 19) {
+            return Math.multiplyExact(amount.unscaledValue().longValue(), POWERS_OF_TEN[SCALE - scale]);
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_EVEN).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toDecimal(long units) {
+        return BigDecimal.valueOf(units, SCALE);
+    }
+
+    public static BigDecimal toDecimal(BigInteger units) {
+        return new BigDecimal(units, SCALE);
+    }
+
+    /** Units as a double, for rates and other approximate figures. */
+    public static double toDouble(long units) {
+        return units / (double) POWERS_OF_TEN[SCALE];
+    }
+}
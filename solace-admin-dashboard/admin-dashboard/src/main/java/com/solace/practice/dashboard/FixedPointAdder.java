@@ -0,0 +1,70 @@
+package com.solace.practice.dashboard;
+
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A sum of {@link FixedPoint} units that many threads add to at once and
+ * that never overflows silently.
+ *
+ * Like LongAdder, each thread adds to one of several stripes so workers do
+ * not contend. Unlike LongAdder, every add is checked: if a stripe would
+ * overflow, its value is moved into an exact BigInteger carry instead. That
+ * takes a lock, but a stripe only fills after about 9 trillion in amounts.
+ */
+public class FixedPointAdder {
+
+    // Stripes sit 8 longs (one cache line) apart so neighbours do not false-share
+    private static final int STRIDE = 8;
+    private static final int STRIPES =
+            Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+
+    private final AtomicLongArray stripes = new AtomicLongArray(STRIPES * STRIDE);
+
+    // Guarded by this
+    private BigInteger carry = BigInteger.ZERO;
+
+    public void add(long units) {
+        int index = ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+        long current;
+        long next;
+        do {
+            current = stripes.get(index);
+            next = current + units;
+            if (((current ^ next) & (units ^ next)) < 0) {
+                spill(index, units);
+                return;
+            }
+        } while (!stripes.compareAndSet(index, current, next));
+    }
+
+    /** Adds a total too large for {@link #add(long)}, e.g. one restored from a checkpoint. */
+    public synchronized void add(BigInteger units) {
+        carry = carry.add(units);
+    }
+
+    /**
+     * The exact total. Like LongAdder.sum(), adds made while summing may or
+     * may not be included. Holding the lock keeps a concurrent spill from
+     * being missed or counted twice.
+     */
+    public synchronized BigInteger sum() {
+        BigInteger total = carry;
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            long value = stripes.get(i * STRIDE);
+            long next = sum + value;
+            if (((sum ^ next) & (value ^ next)) < 0) {
+                total = total.add(BigInteger.valueOf(sum));
+                next = value;
+            }
+            sum = next;
+        }
+        return total.add(BigInteger.valueOf(sum));
+    }
+
+    private synchronized void spill(int index, long units) {
+        long drained = stripes.getAndSet(index, 0);
+        carry = carry.add(BigInteger.valueOf(drained)).add(BigInteger.valueOf(units));
+    }
+}
@@ -0,0 +1,165 @@
+package com.solace.practice.dashboard;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The k keys with the largest totals (order counts, revenue) in a stream
+ * with millions of distinct keys, in fixed memory.
+ *
+ * Totals are estimated by a {@link CountMinSketch}; only the k current
+ * leaders are kept by name. Adding to a leader updates its estimate without
+ * locking. Any other key is compared with the smallest leader's estimate, a
+ * volatile read, and only if it beats it does the add take the lock to
+ * displace that leader. Once the leaders settle the lock is rarely taken.
+ *
+ * The leaders are a map rather than a min-heap: a heap stays ordered only
+ * if every add to a leader takes the lock to sift it, and adds to leaders
+ * are most of the traffic. The cost is an O(k) scan for the smallest
+ * leader on each displacement, and on each rejected challenger, which
+ * raises the threshold to the smallest leader's current estimate.
+ *
+ * Like the sketch, totals may be overestimated, never underestimated. A key
+ * only becomes a leader while it is being added to, so one that climbed
+ * past the others through hash collisions alone can appear but is pushed
+ * out as soon as real leaders grow.
+ */
+public class HeavyHitters {
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 16 * 1024;
+
+    private final int k;
+    private final CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+    private final Map<String, AtomicLong> leaders = new ConcurrentHashMap<>();
+    // Smallest leader estimate once there are k leaders; 0 until then
+    private volatile long threshold;
+
+    public HeavyHitters(int k) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be at least 1: " + k);
+        }
+        this.k = k;
+    }
+
+    public void add(String key, long amount) {
+        if (key != null) {
+            add(key, KeyHash.of(key), amount);
+        }
+    }
+
+    /** As {@link #add(String, long)} with the key's {@link KeyHash} already computed. */
+    public void add(String key, long hash, long amount) {
+        long estimate = sketch.add(hash, amount);
+        AtomicLong leader = leaders.get(key);
+        if (leader != null) {
+            leader.accumulateAndGet(estimate, Math::max);
+        } else if (estimate > threshold) {
+            admit(key, estimate);
+        }
+    }
+
+    /** The current leaders, largest first. */
+    public List<Entry> top() {
+        List<Entry> top = new ArrayList<>(k);
+        for (Map.Entry<String, AtomicLong> leader : leaders.entrySet()) {
+            top.add(new Entry(leader.getKey(), leader.getValue().get()));
+        }
+        top.sort((a, b) -> Long.compare(b.estimate, a.estimate));
+        return top;
+    }
+
+    /** Estimate a key not yet leading must pass to take the lock; 0 until there are k leaders. */
+    long threshold() {
+        return threshold;
+    }
+
+    /** Writes the sketch and the current leaders. */
+    public void writeTo(DataOutput out) throws IOException {
+        sketch.writeTo(out);
+        List<Entry> top = top();
+        out.writeInt(top.size());
+        for (Entry entry : top) {
+            byte[] key = entry.key.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(key.length);
+            out.write(key);
+            out.writeLong(entry.estimate);
+        }
+    }
+
+    /** Adds what {@link #writeTo} saved; call before anything else is added. */
+    public void readFrom(ByteBuffer in) {
+        sketch.readFrom(in);
+        int saved = in.getInt();
+        for (int i = 0; i < saved; i++) {
+            int length = in.getInt();
+            if (length < 0 || length > in.remaining()) {
+                throw new IllegalArgumentException("Saved key length " + length + " with " + in.remaining()
+                        + " bytes left");
+            }
+            byte[] key = new byte[length];
+            in.get(key);
+            admit(new String(key, StandardCharsets.UTF_8), in.getLong());
+        }
+    }
+
+    private synchronized void admit(String key, long estimate) {
+        if (leaders.containsKey(key)) {
+            return;
+        }
+        if (leaders.size() < k) {
+            leaders.put(key, new AtomicLong(estimate));
+        } else {
+            String smallest = smallestLeader();
+            long smallestEstimate = leaders.get(smallest).get();
+            if (estimate <= smallestEstimate) {
+                // Leaders have grown since the threshold was set; raise it so keys like this stay off the lock
+                threshold = smallestEstimate;
+                return;
+            }
+            leaders.remove(smallest);
+            leaders.put(key, new AtomicLong(estimate));
+        }
+        if (leaders.size() == k) {
+            threshold = leaders.get(smallestLeader()).get();
+        }
+    }
+
+    // Only called with the lock held, so the set of leaders cannot change underneath
+    private String smallestLeader() {
+        String smallest = null;
+        long smallestEstimate = Long.MAX_VALUE;
+        for (Map.Entry<String, AtomicLong> leader : leaders.entrySet()) {
+            long estimate = leader.getValue().get();
+            if (estimate < smallestEstimate) {
+                smallest = leader.getKey();
+                smallestEstimate = estimate;
+            }
+        }
+        return smallest;
+    }
+
+    /** A key and its estimated total. */
+    public static final class Entry {
+
+        private final String key;
+        private final long estimate;
+
+        private Entry(String key, long estimate) {
+            this.key = key;
+            this.estimate = estimate;
+        }
+
+        public String getKey() { return key; }
+
+        /** Estimated total; never below the true total. */
+        public long getEstimate() { return estimate; }
+    }
+}
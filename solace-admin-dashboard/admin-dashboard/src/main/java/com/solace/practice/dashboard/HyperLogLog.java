@@ -0,0 +1,141 @@
+package com.solace.practice.dashboard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Approximate count of distinct keys in 16 KB, whatever the cardinality.
+ *
+ * Each key's 64-bit hash picks one of 2^14 registers with its top bits; the
+ * register keeps the longest run of leading zeros seen in the rest. The
+ * count comes from how many registers hold each rank, using Ertl's improved
+ * estimator ("New cardinality estimation algorithms for HyperLogLog
+ * sketches", 2017): within about 0.8% (one standard error) at every
+ * cardinality. The classic harmonic mean with a switch to linear counting
+ * at 2.5 x 2^14 keys overestimated by 2-3% just past the switch.
+ *
+ * Registers only ever grow, so concurrent adds need no lock: an add that
+ * would not raise its register is a plain read, and one that would is a
+ * CAS. Two sketches merge by taking the larger of each register, which is
+ * how windows and other dashboard instances are combined.
+ */
+public class HyperLogLog {
+
+    private static final int PRECISION = 14;
+    private static final int REGISTERS = 1 << PRECISION;
+    // Ranks run from 1 to MAX_RANK once a register is set
+    private static final int MAX_RANK = 64 - PRECISION + 1;
+    private static final double ALPHA_INFINITY = 1 / (2 * Math.log(2));
+
+    private static final VarHandle REGISTER = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(new byte[REGISTERS]);
+    }
+
+    private HyperLogLog(byte[] registers) {
+        this.registers = registers;
+    }
+
+    /** Restores a sketch written by {@link #toBytes()}, e.g. by another dashboard instance. */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length != REGISTERS) {
+            throw new IllegalArgumentException("Expected " + REGISTERS + " registers, got " + bytes.length);
+        }
+        return new HyperLogLog(bytes.clone());
+    }
+
+    /** Counts the key with this hash, from any thread; see {@link KeyHash}. */
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - PRECISION));
+        // The sentinel bit caps the rank at 64 - PRECISION + 1
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << PRECISION) | (1L << (PRECISION - 1))) + 1);
+        byte current;
+        do {
+            current = (byte) REGISTER.getOpaque(registers, index);
+            if (current >= rank) {
+                return;
+            }
+        } while (!REGISTER.compareAndSet(registers, index, current, rank));
+    }
+
+    /** Raises this sketch to also count everything {@code other} has. */
+    public void merge(HyperLogLog other) {
+        for (int i = 0; i < REGISTERS; i++) {
+            byte rank = (byte) REGISTER.getOpaque(other.registers, i);
+            byte current;
+            do {
+                current = (byte) REGISTER.getOpaque(registers, i);
+                if (current >= rank) {
+                    break;
+                }
+            } while (!REGISTER.compareAndSet(registers, i, current, rank));
+        }
+    }
+
+    /**
+     * Empties the sketch. Not atomic: callers must make sure nothing adds
+     * to it meanwhile.
+     */
+    public void clear() {
+        for (int i = 0; i < REGISTERS; i++) {
+            REGISTER.setOpaque(registers, i, (byte) 0);
+        }
+    }
+
+    public long estimate() {
+        int[] ranks = new int[MAX_RANK + 1];
+        for (int i = 0; i < REGISTERS; i++) {
+            ranks[(byte) REGISTER.getOpaque(registers, i)]++;
+        }
+        if (ranks[0] == REGISTERS) {
+            return 0;
+        }
+        // Ertl's estimator: the empty and saturated registers get corrected terms, the rest a weighted sum
+        double z = REGISTERS * tau(1 - (double) ranks[MAX_RANK] / REGISTERS);
+        for (int rank = MAX_RANK - 1; rank >= 1; rank--) {
+            z = 0.5 * (z + ranks[rank]);
+        }
+        z += REGISTERS * sigma((double) ranks[0] / REGISTERS);
+        return Math.round(ALPHA_INFINITY * REGISTERS * REGISTERS / z);
+    }
+
+    private static double sigma(double x) {
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+
+    public byte[] toBytes() {
+        byte[] bytes = new byte[REGISTERS];
+        for (int i = 0; i < REGISTERS; i++) {
+            bytes[i] = (byte) REGISTER.getOpaque(registers, i);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,22 @@
+package com.solace.practice.dashboard;
+
+/**
+ * The 64-bit hash the dashboard's sketches key on. Both
+ * {@link CountMinSketch} and {@link HyperLogLog} need every bit well mixed,
+ * which String.hashCode() does not give.
+ */
+public final class KeyHash {
+
+    private KeyHash() {}
+
+    public static long of(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001b3L;
+        }
+        // FNV alone leaves the low bits poorly mixed; finish as in SplittableRandom
+        h = (h ^ (h >>> 30)) * 0xbf58476d1ce4e5b9L;
+        h = (h ^ (h >>> 27)) * 0x94d049bb133111ebL;
+        return h ^ (h >>> 31);
+    }
+}
@@ -0,0 +1,289 @@
+package com.solace.practice.dashboard;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Serves the dashboard to browsers: a page at {@code /} that follows a
+ * Server-Sent Events stream at {@code /events}.
+ *
+ * The dashboard is a flat set of named cells (total orders, revenue in EU,
+ * orders now SHIPPED, ...). At most {@code maxFramesPerSecond} times a
+ * second, and only while someone is watching, one thread takes a
+ * {@link MetricsTracker.Snapshot}, compares its cells with the previous
+ * frame's and encodes the changed ones as JSON once. Every viewer is sent
+ * those same bytes, so recording an order costs nothing extra however many
+ * viewers there are, and a frame costs one snapshot plus one write per
+ * viewer. Frames in which nothing changed are not sent.
+ *
+ * Each viewer is streamed to by its own HTTP thread. A new viewer, or one
+ * too slow to have taken the previous frame, is sent every cell instead of
+ * the changes, so a slow viewer catches up without holding up the others.
+ */
+public class LiveDashboardServer implements AutoCloseable {
+
+    private static final long KEEPALIVE_MILLIS = 15_000;
+    private static final byte[] KEEPALIVE = ": keepalive\n\n".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] PAGE = ("<!DOCTYPE html>\n"
+            + "<html><head><meta charset=\"utf-8\"><title>Real-Time Admin Dashboard</title></head>\n"
+            + "<body><h1>Real-Time Admin Dashboard</h1><table id=\"cells\"></table>\n"
+            + "<script>\n"
+            + "var rows = {};\n"
+            + "new EventSource('events').onmessage = function (event) {\n"
+            + "  var cells = JSON.parse(event.data);\n"
+            + "  for (var name in cells) {\n"
+            + "    var row = rows[name];\n"
+            + "    if (!row) {\n"
+            + "      row = rows[name] = document.getElementById('cells').insertRow();\n"
+            + "      row.insertCell().textContent = name;\n"
+            + "      row.insertCell();\n"
+            + "    }\n"
+            + "    row.cells[1].textContent = JSON.stringify(cells[name]);\n"
+            + "  }\n"
+            + "};\n"
+            + "</script></body></html>\n").getBytes(StandardCharsets.UTF_8);
+
+    private final MetricsTracker metrics;
+    private final HttpServer server;
+    private final ExecutorService viewerThreads;
+    private final ScheduledExecutorService publisher;
+    private final ObjectMapper json = new ObjectMapper();
+    private final AtomicInteger viewers = new AtomicInteger();
+    private final Object frameLock = new Object();
+    private volatile boolean running = true;
+    private volatile Frame latest = new Frame(0, new byte[0], new byte[0]);
+    // Only touched by the publisher thread
+    private Map<String, Object> previousCells = new LinkedHashMap<>();
+
+    /** @param port TCP port to listen on, or 0 for any free one; see {@link #getPort} */
+    public LiveDashboardServer(MetricsTracker metrics, int port, int maxFramesPerSecond) throws IOException {
+        this.metrics = metrics;
+        this.server = HttpServer.create(new InetSocketAddress(port), 0);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.viewerThreads = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "dashboard-http-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(viewerThreads);
+        server.createContext("/", this::servePage);
+        server.createContext("/events", this::streamEvents);
+        this.publisher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "dashboard-frames");
+            t.setDaemon(true);
+            return t;
+        });
+        server.start();
+        long periodMicros = TimeUnit.SECONDS.toMicros(1) / maxFramesPerSecond;
+        publisher.scheduleAtFixedRate(this::publishFrame, periodMicros, periodMicros, TimeUnit.MICROSECONDS);
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** Viewers currently connected to {@code /events}. */
+    public int getViewers() {
+        return viewers.get();
+    }
+
+    private void publishFrame() {
+        if (viewers.get() == 0) {
+            return;
+        }
+        try {
+            Map<String, Object> cells = cells(metrics.snapshot());
+            Map<String, Object> changed = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> cell : cells.entrySet()) {
+                if (!Objects.equals(previousCells.get(cell.getKey()), cell.getValue())) {
+                    changed.put(cell.getKey(), cell.getValue());
+                }
+            }
+            if (changed.isEmpty()) {
+                return;
+            }
+            long sequence = latest.sequence + 1;
+            Frame frame = new Frame(sequence, event(sequence, changed), event(sequence, cells));
+            previousCells = cells;
+            synchronized (frameLock) {
+                latest = frame;
+                frameLock.notifyAll();
+            }
+        } catch (IOException | RuntimeException e) {
+            // A failed frame must not cancel the schedule; the next one carries the same changes
+            System.out.println("Live dashboard frame failed: " + e);
+        }
+    }
+
+    private byte[] event(long sequence, Map<String, Object> cells) throws IOException {
+        String event = "id: " + sequence + "\ndata: " + json.writeValueAsString(cells) + "\n\n";
+        return event.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private void servePage(HttpExchange exchange) throws IOException {
+        try {
+            if (!"/".equals(exchange.getRequestURI().getPath())) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            exchange.getResponseHeaders().set("Content-Type", "text/html; charset=utf-8");
+            exchange.sendResponseHeaders(200, PAGE.length);
+            exchange.getResponseBody().write(PAGE);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void streamEvents(HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "text/event-stream");
+        exchange.getResponseHeaders().set("Cache-Control", "no-cache");
+        exchange.sendResponseHeaders(200, 0);
+        viewers.incrementAndGet();
+        try (OutputStream out = exchange.getResponseBody()) {
+            long sent = 0;
+            while (running) {
+                Frame frame = awaitFrameAfter(sent);
+                if (frame == null) {
+                    out.write(KEEPALIVE);
+                } else {
+                    out.write(frame.sequence == sent + 1 ? frame.changes : frame.all);
+                    sent = frame.sequence;
+                }
+                out.flush();
+            }
+        } catch (IOException e) {
+            // The viewer went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            viewers.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    /** The latest frame if it is newer than {@code sequence}, or null after the keepalive interval. */
+    private Frame awaitFrameAfter(long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + KEEPALIVE_MILLIS;
+        synchronized (frameLock) {
+            while (running && latest.sequence <= sequence) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return null;
+                }
+                frameLock.wait(remaining);
+            }
+            return latest.sequence > sequence ? latest : null;
+        }
+    }
+
+    /** The snapshot as named cells, in the order a new viewer's page lists them. */
+    static Map<String, Object> cells(MetricsTracker.Snapshot metrics) {
+        Map<String, Object> cells = new LinkedHashMap<>();
+        cells.put("orders", metrics.getTotalOrders());
+        cells.put("revenue", cents(metrics.getTotalRevenue()));
+        cells.put("liveOrders", metrics.getLiveOrders());
+        cells.put("untrackedOrders", metrics.getUntrackedOrders());
+        SlidingWindowRates.Snapshot rates = metrics.getRates();
+        for (int w = 0; w < SlidingWindowRates.windowCount(); w++) {
+            String window = SlidingWindowRates.label(w);
+            cells.put("ordersPerSecond." + window, Math.round(rates.getOrdersPerSecond(w)));
+            cells.put("revenuePerSecond." + window,
+                    BigDecimal.valueOf(rates.getRevenuePerSecond(w)).setScale(2, RoundingMode.HALF_EVEN));
+        }
+        MetricsTracker.Distinct customers = metrics.getDistinctCustomers();
+        cells.put("customers", customers.getTotal());
+        for (int w = 0; w < DistinctWindows.windowCount(); w++) {
+            cells.put("customers." + DistinctWindows.label(w), customers.getByWindow(w));
+        }
+        for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+            String region = "region." + OrderSlots.regionLabel(r);
+            cells.put(region + ".orders", metrics.getOrdersByRegion(r));
+            cells.put(region + ".revenue", cents(metrics.getRevenueByRegion(r)));
+            cells.put(region + ".customers", customers.getByRegion(r));
+        }
+        for (int s = 0; s < OrderSlots.STATUS_SLOTS; s++) {
+            String status = "status." + OrderSlots.statusLabel(s);
+            cells.put(status + ".orders", metrics.getOrdersByStatus(s));
+            cells.put(status + ".revenue", cents(metrics.getRevenueByStatus(s)));
+            cells.put(status + ".customers", customers.getByStatus(s));
+            cells.put(status + ".now", metrics.getCurrentByStatus(s));
+            for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+                cells.put(status + ".now." + OrderSlots.regionLabel(r), metrics.getCurrentByStatusAndRegion(s, r));
+            }
+            for (int p = 0; p < OrderSlots.PRIORITY_SLOTS; p++) {
+                cells.put(status + ".now." + OrderSlots.priorityLabel(p),
+                        metrics.getCurrentByStatusAndPriority(s, p));
+            }
+        }
+        for (int p = 0; p < OrderSlots.PRIORITY_SLOTS; p++) {
+            String priority = "priority." + OrderSlots.priorityLabel(p);
+            cells.put(priority + ".orders", metrics.getOrdersByPriority(p));
+            cells.put(priority + ".revenue", cents(metrics.getRevenueByPriority(p)));
+        }
+        cells.put("latencyMicros.p50", metrics.getLatency().getValueAtPercentile(50) / 1_000);
+        cells.put("latencyMicros.p99", metrics.getLatency().getValueAtPercentile(99) / 1_000);
+        cells.put("topCustomers.byOrders", top(metrics.getTopCustomersByOrders(), false));
+        cells.put("topCustomers.byRevenue", top(metrics.getTopCustomersByRevenue(), true));
+        cells.put("topProducts.byOrders", top(metrics.getTopProductsByOrders(), false));
+        cells.put("topProducts.byRevenue", top(metrics.getTopProductsByRevenue(), true));
+        return cells;
+    }
+
+    private static BigDecimal cents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_EVEN);
+    }
+
+    /** Leaders as [key, estimate] pairs; a list so that two rankings compare equal by content. */
+    private static List<List<Object>> top(List<HeavyHitters.Entry> leaders, boolean revenue) {
+        List<List<Object>> top = new ArrayList<>(leaders.size());
+        for (HeavyHitters.Entry leader : leaders) {
+            Object estimate = revenue ? cents(FixedPoint.toDecimal(leader.getEstimate())) : leader.getEstimate();
+            top.add(List.of(leader.getKey(), estimate));
+        }
+        return top;
+    }
+
+    /** Stops serving and disconnects every viewer. */
+    @Override
+    public void close() {
+        running = false;
+        publisher.shutdownNow();
+        synchronized (frameLock) {
+            frameLock.notifyAll();
+        }
+        server.stop(0);
+        viewerThreads.shutdownNow();
+    }
+
+    /** One published frame, already encoded as Server-Sent Events. */
+    private static final class Frame {
+
+        private final long sequence;
+        // The cells that changed since the frame before this one
+        private final byte[] changes;
+        private final byte[] all;
+
+        private Frame(long sequence, byte[] changes, byte[] all) {
+            this.sequence = sequence;
+            this.changes = changes;
+            this.all = all;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.solace.practice.dashboard;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Saves a {@link MetricsTracker} to a file now and then, so a restarted
+ * dashboard picks up where it stopped instead of starting from zero.
+ *
+ * Checkpoints are written on the checkpointer's own daemon thread. Every
+ * counter and sketch can be read while workers add to it, so recording
+ * never waits for a checkpoint; orders recorded during one may or may not
+ * be in it. Each checkpoint goes to a temporary file that is synced and
+ * then renamed over the previous one, so a crash mid-write leaves the last
+ * complete checkpoint in place. The file is
+ *
+ * <pre>
+ *   int  magic "ODCP"
+ *   int  format version
+ *   int  OrderSlots.CELLS
+ *   ...  counters and sketches, see MetricsTracker.writeTo
+ *   ...  28 bytes per live order, to the end of the file
+ * </pre>
+ *
+ * {@link #close} writes a final checkpoint after the consumer has stopped,
+ * so a clean restart loses nothing. After a crash, orders processed since
+ * the last checkpoint are missing, and any the broker redelivers that the
+ * checkpoint already had are counted again.
+ *
+ * The live orders are walked after the counters are read, so the two can
+ * disagree about orders recorded in between. The "orders now in status"
+ * view is rebuilt from the restored live orders rather than saved whole,
+ * so it always agrees with them and a later transition never takes an
+ * order out of a status it was not counted in. What remains is per order,
+ * as with the totals: one that reached DELIVERED or CANCELLED during a
+ * checkpoint can be missing from the view, or still counted in its earlier
+ * status, and the counts of orders the store had no room for stay
+ * approximate.
+ */
+public class MetricsCheckpointer implements AutoCloseable {
+
+    private static final int MAGIC = 0x4F444350;
+    private static final int VERSION = 3;
+    // Orders are mapped this many at a time, so checkpoints over 2 GB can be read
+    private static final long ORDERS_PER_WINDOW = 1 << 25;
+
+    private final MetricsTracker metrics;
+    private final Path file;
+    private final ScheduledExecutorService scheduler;
+
+    public MetricsCheckpointer(MetricsTracker metrics, Path file, long intervalSeconds) {
+        this.metrics = metrics;
+        this.file = file;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkpointInBackground, intervalSeconds, intervalSeconds,
+                TimeUnit.SECONDS);
+    }
+
+    /**
+     * Loads a checkpoint into a tracker nothing has been recorded in yet.
+     *
+     * @return false if there is no checkpoint file
+     * @throws IOException if the file cannot be read or is not a complete checkpoint
+     */
+    public static boolean restore(Path file, MetricsTracker metrics) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer in = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(size, Integer.MAX_VALUE));
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) {
+                throw new IOException(file + " is not a dashboard checkpoint");
+            }
+            int cells = in.getInt();
+            if (cells != OrderSlots.CELLS) {
+                throw new IOException(file + " has " + cells + " cells, expected " + OrderSlots.CELLS);
+            }
+            metrics.readFrom(in);
+
+            long position = in.position();
+            while (position < size) {
+                long length = Math.min(size - position, ORDERS_PER_WINDOW * MetricsTracker.ORDER_STATE_SIZE);
+                if (length % MetricsTracker.ORDER_STATE_SIZE != 0) {
+                    throw new IOException(file + " ends part way through an order");
+                }
+                MappedByteBuffer orders = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                while (orders.hasRemaining()) {
+                    metrics.readOrderState(orders);
+                }
+                position += length;
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException(file + " is truncated or damaged", e);
+        }
+        return true;
+    }
+
+    /** Writes a checkpoint now, replacing the previous one. */
+    public synchronized void checkpoint() throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             DataOutputStream out = new DataOutputStream(
+                     new BufferedOutputStream(Channels.newOutputStream(channel), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(OrderSlots.CELLS);
+            metrics.writeTo(out);
+            metrics.writeOrderStates(out);
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void checkpointInBackground() {
+        try {
+            checkpoint();
+        } catch (IOException e) {
+            // Keep the previous checkpoint and try again next time
+            System.out.println("Checkpoint to " + file + " failed: " + e.getMessage());
+        }
+    }
+
+    /** Stops the periodic checkpoints and writes a last one; call once the consumer has stopped. */
+    @Override
+    public void close() throws IOException {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        checkpoint();
+    }
+}
@@ -0,0 +1,587 @@
+package com.solace.practice.dashboard;
+
+import com.solace.practice.codec.OrderKeys;
+import com.solace.practice.metrics.LatencyHistogram;
+import com.solace.practice.model.Order;
+import com.solace.practice.model.OrderStatus;
+import com.solace.practice.transport.SendTimestamps;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Real-time order counts and revenue by region, status and priority, fed by
+ * every consumer worker at once.
+ *
+ * Each region/status/priority combination has its own LongAdder and
+ * {@link FixedPointAdder}, both of which spread concurrent adds over
+ * per-thread stripes. Recording an order is one uncontended add to each: no
+ * lock, no shared map, no boxing and no BigDecimal arithmetic. The
+ * per-region, per-status and per-priority totals are summed only when a
+ * {@link Snapshot} is taken.
+ *
+ * The top customers and products, by order count and by revenue, come from
+ * {@link HeavyHitters}, so memory stays fixed however many distinct
+ * customers there are. Distinct customers overall, per region, per status
+ * and per time window are counted in {@link HyperLogLog} sketches for the
+ * same reason.
+ *
+ * Order amounts (in cents) and quantities per region and priority go into
+ * log-linear {@link LatencyHistogram}s. Despite the name these suit any
+ * non-negative value: fixed memory, about 1.6% relative error at every
+ * percentile, and snapshots that add together to merge regions, threads or
+ * dashboard instances. Publish-to-consume latency per region and priority
+ * is kept the same way, from the send time the publisher stamps on each
+ * message.
+ *
+ * The latest state of every order not yet delivered or cancelled is kept in
+ * an off-heap {@link OrderStateStore}. The previous state it returns keeps
+ * an {@link OrderStatusView} of how many orders are in each status now.
+ *
+ * Everything but the rates and recent-customer windows, which only
+ * describe the last few minutes, can be saved and restored by
+ * {@link MetricsCheckpointer}.
+ */
+public class MetricsTracker {
+
+    /** Bytes {@link #writeOrderStates} writes per order. */
+    static final int ORDER_STATE_SIZE = 28;
+
+    private static final long UNITS_PER_CENT = FixedPoint.toUnits(new BigDecimal("0.01"));
+
+    private final LongAdder[] counts = new LongAdder[OrderSlots.CELLS];
+    private final FixedPointAdder[] revenue = new FixedPointAdder[OrderSlots.CELLS];
+    private final SlidingWindowRates rates = new SlidingWindowRates();
+    private final HeavyHitters customersByOrders;
+    private final HeavyHitters customersByRevenue;
+    private final HeavyHitters productsByOrders;
+    private final HeavyHitters productsByRevenue;
+    private final HyperLogLog customers = new HyperLogLog();
+    private final HyperLogLog[] customersByRegion = sketches(OrderSlots.REGION_SLOTS);
+    private final HyperLogLog[] customersByStatus = sketches(OrderSlots.STATUS_SLOTS);
+    private final DistinctWindows recentCustomers = new DistinctWindows();
+    // Indexed by regionSlot * PRIORITY_SLOTS + prioritySlot
+    private final LatencyHistogram[] amountCents = histograms(OrderSlots.REGION_SLOTS * OrderSlots.PRIORITY_SLOTS);
+    private final LatencyHistogram[] quantities = histograms(OrderSlots.REGION_SLOTS * OrderSlots.PRIORITY_SLOTS);
+    private final LatencyHistogram[] latencies = histograms(OrderSlots.REGION_SLOTS * OrderSlots.PRIORITY_SLOTS);
+    private final OrderStateStore orderStates;
+    private final LongAdder untrackedOrders = new LongAdder();
+    private final OrderStatusView statusView = new OrderStatusView();
+    // The part of each status view cell not made up of orders in the store: terminal
+    // events, and events of orders the store had no room for or that had no id
+    private final LongAdder[] unstored = new LongAdder[OrderSlots.CELLS];
+
+    /**
+     * @param topK customers and products to rank
+     * @param orderStateCapacity most live orders whose state is kept
+     */
+    public MetricsTracker(int topK, long orderStateCapacity) {
+        orderStates = new OrderStateStore(orderStateCapacity);
+        customersByOrders = new HeavyHitters(topK);
+        customersByRevenue = new HeavyHitters(topK);
+        productsByOrders = new HeavyHitters(topK);
+        productsByRevenue = new HeavyHitters(topK);
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+            revenue[i] = new FixedPointAdder();
+            unstored[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Safe to call from any number of threads, as long as each order's
+     * events come from one thread at a time.
+     *
+     * @param sendTimeNanos when the order was published, in epoch nanoseconds, or 0 if unknown
+     * @throws ArithmeticException if the order's amount is too large to count
+     */
+    public void recordOrder(Order order, long sendTimeNanos) {
+        BigDecimal amount = order.getTotalAmount();
+        long units = amount == null ? 0 : FixedPoint.toUnits(amount);
+        int regionSlot = OrderSlots.region(order.getRegion());
+        int statusSlot = OrderSlots.status(order.getStatus());
+        int prioritySlot = OrderSlots.priority(order.getPriority());
+        int cell = OrderSlots.cell(regionSlot, statusSlot, prioritySlot);
+        counts[cell].increment();
+        revenue[cell].add(units);
+        rates.record(units);
+        int regionPriority = regionSlot * OrderSlots.PRIORITY_SLOTS + prioritySlot;
+        amountCents[regionPriority].recordValue(units / UNITS_PER_CENT);
+        quantities[regionPriority].recordValue(order.getQuantity());
+        if (sendTimeNanos != 0) {
+            latencies[regionPriority].recordValue(SendTimestamps.now() - sendTimeNanos);
+        }
+
+        int previous = OrderStateStore.ABSENT;
+        boolean stored = false;
+        String orderId = order.getOrderId();
+        if (orderId != null) {
+            long high = OrderKeys.mostSigBits(orderId);
+            long low = OrderKeys.leastSigBits(orderId);
+            if (isFinal(order.getStatus())) {
+                previous = orderStates.remove(high, low);
+            } else {
+                previous = orderStates.put(high, low,
+                        OrderStateStore.attributes(statusSlot, regionSlot, prioritySlot), units);
+                if (previous == OrderStateStore.FULL) {
+                    untrackedOrders.increment();
+                } else {
+                    stored = true;
+                }
+            }
+        }
+        statusView.transition(previous, cell);
+        if (!stored) {
+            unstored[cell].increment();
+        }
+
+        String customerId = order.getCustomerId();
+        if (customerId != null) {
+            long customerHash = KeyHash.of(customerId);
+            customersByOrders.add(customerId, customerHash, 1);
+            customersByRevenue.add(customerId, customerHash, units);
+            customers.add(customerHash);
+            customersByRegion[regionSlot].add(customerHash);
+            customersByStatus[statusSlot].add(customerHash);
+            recentCustomers.add(customerHash);
+        }
+        productsByOrders.add(order.getProductId(), 1);
+        productsByRevenue.add(order.getProductId(), units);
+    }
+
+    /** Closes the current one-second rate bucket, and minute when due; call from a single thread. */
+    public void tick(long nowNanos) {
+        rates.tick(nowNanos);
+        recentCustomers.tick(nowNanos);
+    }
+
+    /**
+     * Writes every counter and sketch for a checkpoint. Orders recorded
+     * meanwhile may or may not be included.
+     *
+     * The status view is saved without the orders in the store; restoring
+     * those with {@link #readOrderState} adds them back, so after a restore
+     * the view agrees with the store whatever changed between the two reads.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        for (LongAdder count : counts) {
+            out.writeLong(count.sum());
+        }
+        for (FixedPointAdder sum : revenue) {
+            writeBytes(out, sum.sum().toByteArray());
+        }
+        for (LongAdder count : unstored) {
+            out.writeLong(count.sum());
+        }
+        out.writeLong(untrackedOrders.sum());
+        customersByOrders.writeTo(out);
+        customersByRevenue.writeTo(out);
+        productsByOrders.writeTo(out);
+        productsByRevenue.writeTo(out);
+        writeBytes(out, customers.toBytes());
+        for (HyperLogLog sketch : customersByRegion) {
+            writeBytes(out, sketch.toBytes());
+        }
+        for (HyperLogLog sketch : customersByStatus) {
+            writeBytes(out, sketch.toBytes());
+        }
+        for (LatencyHistogram[] group : Arrays.asList(amountCents, quantities, latencies)) {
+            for (LatencyHistogram histogram : group) {
+                histogram.snapshot().writeTo(out);
+            }
+        }
+    }
+
+    /** Adds what {@link #writeTo} saved; call before any order is recorded. */
+    void readFrom(ByteBuffer in) {
+        for (LongAdder count : counts) {
+            count.add(in.getLong());
+        }
+        for (FixedPointAdder sum : revenue) {
+            sum.add(new BigInteger(readBytes(in)));
+        }
+        long[] current = new long[OrderSlots.CELLS];
+        for (int i = 0; i < current.length; i++) {
+            current[i] = in.getLong();
+            unstored[i].add(current[i]);
+        }
+        statusView.add(current);
+        untrackedOrders.add(in.getLong());
+        customersByOrders.readFrom(in);
+        customersByRevenue.readFrom(in);
+        productsByOrders.readFrom(in);
+        productsByRevenue.readFrom(in);
+        customers.merge(HyperLogLog.fromBytes(readBytes(in)));
+        for (HyperLogLog sketch : customersByRegion) {
+            sketch.merge(HyperLogLog.fromBytes(readBytes(in)));
+        }
+        for (HyperLogLog sketch : customersByStatus) {
+            sketch.merge(HyperLogLog.fromBytes(readBytes(in)));
+        }
+        for (LatencyHistogram[] group : Arrays.asList(amountCents, quantities, latencies)) {
+            for (LatencyHistogram histogram : group) {
+                histogram.add(LatencyHistogram.Snapshot.readFrom(in));
+            }
+        }
+    }
+
+    /** Writes {@link #ORDER_STATE_SIZE} bytes for each live order. */
+    void writeOrderStates(DataOutput out) throws IOException {
+        try {
+            orderStates.forEach((mostSigBits, leastSigBits, attributes, amountUnits) -> {
+                try {
+                    out.writeLong(mostSigBits);
+                    out.writeLong(leastSigBits);
+                    out.writeInt(attributes);
+                    out.writeLong(amountUnits);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /** Restores one order written by {@link #writeOrderStates}; call before any order is recorded. */
+    void readOrderState(ByteBuffer in) {
+        long mostSigBits = in.getLong();
+        long leastSigBits = in.getLong();
+        int attributes = in.getInt();
+        long amountUnits = in.getLong();
+        int cell = OrderSlots.cell(OrderStateStore.regionSlot(attributes), OrderStateStore.statusSlot(attributes),
+                OrderStateStore.prioritySlot(attributes));
+        statusView.transition(OrderStateStore.ABSENT, cell);
+        if (orderStates.put(mostSigBits, leastSigBits, attributes, amountUnits) == OrderStateStore.FULL) {
+            // Restored into a smaller store
+            untrackedOrders.increment();
+            unstored[cell].increment();
+        }
+    }
+
+    private static void writeBytes(DataOutput out, byte[] bytes) throws IOException {
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static byte[] readBytes(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0 || length > in.remaining()) {
+            // Checked before allocating, so a damaged length cannot ask for gigabytes
+            throw new IllegalArgumentException("Saved length " + length + " with " + in.remaining() + " bytes left");
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return bytes;
+    }
+
+    /** Delivered and cancelled orders cannot change again, so their state is not kept. */
+    private static boolean isFinal(OrderStatus status) {
+        return status == OrderStatus.DELIVERED || status == OrderStatus.CANCELLED;
+    }
+
+    private static HyperLogLog[] sketches(int count) {
+        HyperLogLog[] sketches = new HyperLogLog[count];
+        for (int i = 0; i < count; i++) {
+            sketches[i] = new HyperLogLog();
+        }
+        return sketches;
+    }
+
+    private static LatencyHistogram[] histograms(int count) {
+        LatencyHistogram[] histograms = new LatencyHistogram[count];
+        for (int i = 0; i < count; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        return histograms;
+    }
+
+    private static LatencyHistogram.Snapshot[] snapshots(LatencyHistogram[] histograms) {
+        LatencyHistogram.Snapshot[] snapshots = new LatencyHistogram.Snapshot[histograms.length];
+        for (int i = 0; i < histograms.length; i++) {
+            snapshots[i] = histograms[i].snapshot();
+        }
+        return snapshots;
+    }
+
+    private static long[] estimates(HyperLogLog[] sketches) {
+        long[] estimates = new long[sketches.length];
+        for (int i = 0; i < sketches.length; i++) {
+            estimates[i] = sketches[i].estimate();
+        }
+        return estimates;
+    }
+
+    /**
+     * Reads every counter. Orders recorded while the snapshot is taken may
+     * or may not be included, but each is counted once it is.
+     */
+    public Snapshot snapshot() {
+        long[] countCopy = new long[counts.length];
+        BigInteger[] revenueCopy = new BigInteger[revenue.length];
+        for (int i = 0; i < counts.length; i++) {
+            countCopy[i] = counts[i].sum();
+            revenueCopy[i] = revenue[i].sum();
+        }
+        Distinct distinctCustomers = new Distinct(customers.estimate(), estimates(customersByRegion),
+                estimates(customersByStatus), recentCustomers.estimates());
+        return new Snapshot(countCopy, revenueCopy, rates.snapshot(), customersByOrders.top(),
+                customersByRevenue.top(), productsByOrders.top(), productsByRevenue.top(), distinctCustomers,
+                snapshots(amountCents), snapshots(quantities), snapshots(latencies), orderStates.size(),
+                untrackedOrders.sum(), orderStates.memoryBytes(), statusView.snapshot());
+    }
+
+    /** Approximate distinct-customer counts, indexed by {@link OrderSlots} and {@link DistinctWindows}. */
+    public static final class Distinct {
+
+        private final long total;
+        private final long[] byRegion;
+        private final long[] byStatus;
+        private final long[] byWindow;
+
+        private Distinct(long total, long[] byRegion, long[] byStatus, long[] byWindow) {
+            this.total = total;
+            this.byRegion = byRegion;
+            this.byStatus = byStatus;
+            this.byWindow = byWindow;
+        }
+
+        public long getTotal() { return total; }
+
+        public long getByRegion(int regionSlot) { return byRegion[regionSlot]; }
+
+        public long getByStatus(int statusSlot) { return byStatus[statusSlot]; }
+
+        public long getByWindow(int window) { return byWindow[window]; }
+    }
+
+    /** Order counts and revenue at one point in time, indexed by {@link OrderSlots}. */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final BigInteger[] revenue;
+        private final SlidingWindowRates.Snapshot rates;
+        private final List<HeavyHitters.Entry> topCustomersByOrders;
+        private final List<HeavyHitters.Entry> topCustomersByRevenue;
+        private final List<HeavyHitters.Entry> topProductsByOrders;
+        private final List<HeavyHitters.Entry> topProductsByRevenue;
+        private final Distinct distinctCustomers;
+        private final LatencyHistogram.Snapshot[] amountCents;
+        private final LatencyHistogram.Snapshot[] quantities;
+        private final LatencyHistogram.Snapshot[] latencies;
+        private final long liveOrders;
+        private final long untrackedOrders;
+        private final long orderStateBytes;
+        private final long[] current;
+        private final long total;
+        private final BigInteger totalRevenue;
+        private final long[] byRegion = new long[OrderSlots.REGION_SLOTS];
+        private final long[] byStatus = new long[OrderSlots.STATUS_SLOTS];
+        private final long[] byPriority = new long[OrderSlots.PRIORITY_SLOTS];
+        private final BigInteger[] revenueByRegion = zeros(OrderSlots.REGION_SLOTS);
+        private final BigInteger[] revenueByStatus = zeros(OrderSlots.STATUS_SLOTS);
+        private final BigInteger[] revenueByPriority = zeros(OrderSlots.PRIORITY_SLOTS);
+
+        private Snapshot(long[] counts, BigInteger[] revenue, SlidingWindowRates.Snapshot rates,
+                         List<HeavyHitters.Entry> topCustomersByOrders, List<HeavyHitters.Entry> topCustomersByRevenue,
+                         List<HeavyHitters.Entry> topProductsByOrders, List<HeavyHitters.Entry> topProductsByRevenue,
+                         Distinct distinctCustomers, LatencyHistogram.Snapshot[] amountCents,
+                         LatencyHistogram.Snapshot[] quantities, LatencyHistogram.Snapshot[] latencies,
+                         long liveOrders, long untrackedOrders, long orderStateBytes, long[] current) {
+            this.counts = counts;
+            this.revenue = revenue;
+            this.rates = rates;
+            this.topCustomersByOrders = topCustomersByOrders;
+            this.topCustomersByRevenue = topCustomersByRevenue;
+            this.topProductsByOrders = topProductsByOrders;
+            this.topProductsByRevenue = topProductsByRevenue;
+            this.distinctCustomers = distinctCustomers;
+            this.amountCents = amountCents;
+            this.quantities = quantities;
+            this.latencies = latencies;
+            this.liveOrders = liveOrders;
+            this.untrackedOrders = untrackedOrders;
+            this.orderStateBytes = orderStateBytes;
+            this.current = current;
+            long sum = 0;
+            BigInteger revenueSum = BigInteger.ZERO;
+            for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+                for (int s = 0; s < OrderSlots.STATUS_SLOTS; s++) {
+                    for (int p = 0; p < OrderSlots.PRIORITY_SLOTS; p++) {
+                        int cell = OrderSlots.cell(r, s, p);
+                        long count = counts[cell];
+                        byRegion[r] += count;
+                        byStatus[s] += count;
+                        byPriority[p] += count;
+                        sum += count;
+                        BigInteger units = revenue[cell];
+                        revenueByRegion[r] = revenueByRegion[r].add(units);
+                        revenueByStatus[s] = revenueByStatus[s].add(units);
+                        revenueByPriority[p] = revenueByPriority[p].add(units);
+                        revenueSum = revenueSum.add(units);
+                    }
+                }
+            }
+            this.total = sum;
+            this.totalRevenue = revenueSum;
+        }
+
+        private static BigInteger[] zeros(int length) {
+            BigInteger[] values = new BigInteger[length];
+            Arrays.fill(values, BigInteger.ZERO);
+            return values;
+        }
+
+        public long getTotalOrders() { return total; }
+
+        public BigDecimal getTotalRevenue() { return FixedPoint.toDecimal(totalRevenue); }
+
+        /** Orders not yet delivered or cancelled whose state is held. */
+        public long getLiveOrders() { return liveOrders; }
+
+        /** New orders whose state could not be kept because the store was full. */
+        public long getUntrackedOrders() { return untrackedOrders; }
+
+        /** Off-heap memory reserved for order state. */
+        public long getOrderStateBytes() { return orderStateBytes; }
+
+        /** Orders whose latest event put them in this region, status and priority. */
+        public long getCurrent(int regionSlot, int statusSlot, int prioritySlot) {
+            return current[OrderSlots.cell(regionSlot, statusSlot, prioritySlot)];
+        }
+
+        /** Orders currently in a status, across every region and priority. */
+        public long getCurrentByStatus(int statusSlot) {
+            long sum = 0;
+            for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+                sum += getCurrentByStatusAndRegion(statusSlot, r);
+            }
+            return sum;
+        }
+
+        public long getCurrentByStatusAndRegion(int statusSlot, int regionSlot) {
+            long sum = 0;
+            for (int p = 0; p < OrderSlots.PRIORITY_SLOTS; p++) {
+                sum += current[OrderSlots.cell(regionSlot, statusSlot, p)];
+            }
+            return sum;
+        }
+
+        public long getCurrentByStatusAndPriority(int statusSlot, int prioritySlot) {
+            long sum = 0;
+            for (int r = 0; r < OrderSlots.REGION_SLOTS; r++) {
+                sum += current[OrderSlots.cell(r, statusSlot, prioritySlot)];
+            }
+            return sum;
+        }
+
+        /** Orders and revenue per second as of the last tick. */
+        public SlidingWindowRates.Snapshot getRates() { return rates; }
+
+        /** Leading customers by order count, largest first; counts are estimates. */
+        public List<HeavyHitters.Entry> getTopCustomersByOrders() { return topCustomersByOrders; }
+
+        /** Leading customers by revenue in {@link FixedPoint} units, largest first; totals are estimates. */
+        public List<HeavyHitters.Entry> getTopCustomersByRevenue() { return topCustomersByRevenue; }
+
+        public List<HeavyHitters.Entry> getTopProductsByOrders() { return topProductsByOrders; }
+
+        public List<HeavyHitters.Entry> getTopProductsByRevenue() { return topProductsByRevenue; }
+
+        /** Estimated distinct customers; about 0.8% error. */
+        public Distinct getDistinctCustomers() { return distinctCustomers; }
+
+        /** Distribution of order amounts in cents for one region and priority. */
+        public LatencyHistogram.Snapshot getAmountCents(int regionSlot, int prioritySlot) {
+            return amountCents[regionSlot * OrderSlots.PRIORITY_SLOTS + prioritySlot];
+        }
+
+        public LatencyHistogram.Snapshot getQuantities(int regionSlot, int prioritySlot) {
+            return quantities[regionSlot * OrderSlots.PRIORITY_SLOTS + prioritySlot];
+        }
+
+        /** Order amounts in cents across every priority of a region. */
+        public LatencyHistogram.Snapshot getAmountCentsByRegion(int regionSlot) {
+            return mergeRegion(amountCents, regionSlot);
+        }
+
+        public LatencyHistogram.Snapshot getQuantitiesByRegion(int regionSlot) {
+            return mergeRegion(quantities, regionSlot);
+        }
+
+        /** Order amounts in cents across every region for a priority. */
+        public LatencyHistogram.Snapshot getAmountCentsByPriority(int prioritySlot) {
+            return mergePriority(amountCents, prioritySlot);
+        }
+
+        public LatencyHistogram.Snapshot getQuantitiesByPriority(int prioritySlot) {
+            return mergePriority(quantities, prioritySlot);
+        }
+
+        /** Publish-to-consume latency in nanoseconds for one region and priority. */
+        public LatencyHistogram.Snapshot getLatency(int regionSlot, int prioritySlot) {
+            return latencies[regionSlot * OrderSlots.PRIORITY_SLOTS + prioritySlot];
+        }
+
+        public LatencyHistogram.Snapshot getLatencyByRegion(int regionSlot) {
+            return mergeRegion(latencies, regionSlot);
+        }
+
+        public LatencyHistogram.Snapshot getLatencyByPriority(int prioritySlot) {
+            return mergePriority(latencies, prioritySlot);
+        }
+
+        /** Publish-to-consume latency in nanoseconds across every order. */
+        public LatencyHistogram.Snapshot getLatency() {
+            LatencyHistogram.Snapshot merged = latencies[0];
+            for (int i = 1; i < latencies.length; i++) {
+                merged = merged.plus(latencies[i]);
+            }
+            return merged;
+        }
+
+        private static LatencyHistogram.Snapshot mergeRegion(LatencyHistogram.Snapshot[] histograms, int regionSlot) {
+            LatencyHistogram.Snapshot merged = histograms[regionSlot * OrderSlots.PRIORITY_SLOTS];
+            for (int p = 1; p < OrderSlots.PRIORITY_SLOTS; p++) {
+                merged = merged.plus(histograms[regionSlot * OrderSlots.PRIORITY_SLOTS + p]);
+            }
+            return merged;
+        }
+
+        private static LatencyHistogram.Snapshot mergePriority(LatencyHistogram.Snapshot[] histograms, int prioritySlot) {
+            LatencyHistogram.Snapshot merged = histograms[prioritySlot];
+            for (int r = 1; r < OrderSlots.REGION_SLOTS; r++) {
+                merged = merged.plus(histograms[r * OrderSlots.PRIORITY_SLOTS + prioritySlot]);
+            }
+            return merged;
+        }
+
+        public long getOrders(int regionSlot, int statusSlot, int prioritySlot) {
+            return counts[OrderSlots.cell(regionSlot, statusSlot, prioritySlot)];
+        }
+
+        public BigDecimal getRevenue(int regionSlot, int statusSlot, int prioritySlot) {
+            return FixedPoint.toDecimal(revenue[OrderSlots.cell(regionSlot, statusSlot, prioritySlot)]);
+        }
+
+        public long getOrdersByRegion(int regionSlot) { return byRegion[regionSlot]; }
+
+        public long getOrdersByStatus(int statusSlot) { return byStatus[statusSlot]; }
+
+        public long getOrdersByPriority(int prioritySlot) { return byPriority[prioritySlot]; }
+
+        public BigDecimal getRevenueByRegion(int regionSlot) { return FixedPoint.toDecimal(revenueByRegion[regionSlot]); }
+
+        public BigDecimal getRevenueByStatus(int statusSlot) { return FixedPoint.toDecimal(revenueByStatus[statusSlot]); }
+
+        public BigDecimal getRevenueByPriority(int prioritySlot) {
+            return FixedPoint.toDecimal(revenueByPriority[prioritySlot]);
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.solace.practice.dashboard;
+
+import com.solace.practice.codec.OrderCodec;
+import com.solace.practice.codec.OrderCodecs;
+import com.solace.practice.log.EventLog;
+import com.solace.practice.metrics.LatencyHistogram;
+import com.solace.practice.model.Order;
+import com.solace.practice.transport.InboundHandler;
+import com.solace.practice.transport.InboundMessage;
+import com.solace.practice.transport.Transport;
+import com.solace.practice.transport.TransportFlow;
+import com.solacesystems.jcsmp.JCSMPException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Consumes the order queue with a pool of worker threads.
+ *
+ * The flow's callback thread does as little as possible: it reads the
+ * orderId from the payload (see OrderCodec#orderKey) and hands the message
+ * to the worker that owns that id, through a single-producer ring. Decoding
+ * and the {@link OrderHandler} run on the worker. Because one worker sees
+ * every event of an order, an order's events are processed in queue order.
+ *
+ * The flow is in client-ack mode. Each worker acks the messages it has
+ * processed in batches through an {@link AckBatcher}.
+ *
+ * When a worker's ring is full the callback thread waits, which holds back
+ * the flow and lets the broker's flow control push back on the queue.
+ *
+ * Messages that cannot be read or processed are counted, logged and acked,
+ * so a bad message is not redelivered forever.
+ */
+public class OrderConsumer implements InboundHandler, AutoCloseable {
+
+    private static final int MAX_CACHED_TOPICS = 1024;
+    private static final int IDLE_SPINS = 100;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long FULL_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+
+    private final Transport transport;
+    private final String queueName;
+    private final OrderHandler handler;
+    private final EventLog events;
+    private final EventLog.Category errors;
+    private final Worker[] workers;
+
+    // Only touched by the flow's callback thread
+    private final Map<String, OrderCodec> dispatchCodecs = new HashMap<>();
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder backpressureWaits = new LongAdder();
+    private final LatencyHistogram ackBatchSizes = new LatencyHistogram();
+    private final LatencyHistogram ackLatency = new LatencyHistogram();
+
+    private TransportFlow flow;
+    private volatile boolean running;
+
+    public OrderConsumer(Transport transport, DashboardConfig config, OrderHandler handler, EventLog events) {
+        this.transport = transport;
+        this.queueName = config.getQueueName();
+        this.handler = handler;
+        this.events = events;
+        this.errors = events.category("consume-error", 1);
+        this.workers = new Worker[config.getWorkers()];
+        long ackIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getAckIntervalMillis());
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Worker(i, config.getWorkerQueueSize(),
+                    new AckBatcher(config.getAckBatchSize(), ackIntervalNanos, ackBatchSizes, ackLatency));
+        }
+    }
+
+    /** Binds a client-ack flow to the queue and starts delivery. */
+    public void start() throws JCSMPException {
+        running = true;
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+        flow = transport.createFlow(queueName, true, this);
+        flow.start();
+    }
+
+    // ---- flow callbacks (run on the flow's dispatcher thread) ----
+
+    @Override
+    public void onMessage(InboundMessage message) {
+        received.increment();
+        long key;
+        try {
+            key = codecFor(dispatchCodecs, message.getTopic())
+                    .orderKey(message.getPayloadArray(), message.getPayloadOffset(), message.getPayloadLength());
+        } catch (RuntimeException e) {
+            rejected.increment();
+            events.log(errors, "Unreadable message on " + message.getTopic() + ": ", e);
+            message.ack();
+            return;
+        }
+
+        SpscRing<InboundMessage> ring = workers[partition(key)].ring;
+        if (!ring.offer(message)) {
+            backpressureWaits.increment();
+            do {
+                LockSupport.parkNanos(FULL_PARK_NANOS);
+            } while (!ring.offer(message) && running);
+        }
+    }
+
+    @Override
+    public void onException(JCSMPException cause) {
+        events.log(errors, "Flow exception: ", cause);
+    }
+
+    // ---- stats ----
+
+    public long getReceived() { return received.sum(); }
+
+    public long getProcessed() {
+        long total = 0;
+        for (Worker worker : workers) {
+            total += worker.processed.get();
+        }
+        return total;
+    }
+
+    /** Messages that were read but whose processing threw, plus unreadable ones. */
+    public long getFailed() {
+        long total = rejected.sum();
+        for (Worker worker : workers) {
+            total += worker.failed.get();
+        }
+        return total;
+    }
+
+    /** Times the callback thread found a worker's ring full and had to wait. */
+    public long getBackpressureWaits() { return backpressureWaits.sum(); }
+
+    /** Number of messages in each ack batch sent so far. */
+    public LatencyHistogram.Snapshot getAckBatchSizes() { return ackBatchSizes.snapshot(); }
+
+    /** Nanoseconds from a message being processed to its ack. */
+    public LatencyHistogram.Snapshot getAckLatency() { return ackLatency.snapshot(); }
+
+    /** How long the oldest processed but unacked message has been waiting, in milliseconds. */
+    public long getOldestUnackedMillis() {
+        long now = System.nanoTime();
+        long oldest = 0;
+        for (Worker worker : workers) {
+            long since = worker.acks.oldestPendingNanos();
+            if (since != 0) {
+                oldest = Math.max(oldest, now - since);
+            }
+        }
+        return TimeUnit.NANOSECONDS.toMillis(oldest);
+    }
+
+    /** Messages handed to workers and not yet processed. */
+    public int getQueued() {
+        int total = 0;
+        for (Worker worker : workers) {
+            total += worker.ring.size();
+        }
+        return total;
+    }
+
+    /**
+     * Stops delivery, lets the workers finish and ack what they were
+     * handed, then unbinds the flow.
+     */
+    @Override
+    public void close() {
+        if (flow != null) {
+            flow.stop();
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (getQueued() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        running = false;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+            try {
+                worker.thread.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (flow != null) {
+            flow.close();
+        }
+    }
+
+    // ---- internals ----
+
+    /** Spreads keys evenly over the workers (multiply-shift, no division). */
+    private int partition(long key) {
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (((mixed >>> 32) * workers.length) >>> 32);
+    }
+
+    private static OrderCodec codecFor(Map<String, OrderCodec> codecs, String topic) {
+        OrderCodec codec = codecs.get(topic);
+        if (codec == null) {
+            if (codecs.size() >= MAX_CACHED_TOPICS) {
+                codecs.clear();
+            }
+            codec = OrderCodecs.forTopic(topic);
+            codecs.put(topic, codec);
+        }
+        return codec;
+    }
+
+    private final class Worker implements Runnable {
+        final SpscRing<InboundMessage> ring;
+        final AckBatcher acks;
+        final Thread thread;
+        // Written only by this worker's thread
+        final AtomicLong processed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        private final Map<String, OrderCodec> codecs = new HashMap<>();
+
+        Worker(int index, int queueSize, AckBatcher acks) {
+            this.ring = new SpscRing<>(queueSize);
+            this.acks = acks;
+            this.thread = new Thread(this, "order-consumer-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            int idle = 0;
+            while (running || ring.size() > 0) {
+                InboundMessage message = ring.poll();
+                if (message == null) {
+                    acks.flushIfDue(System.nanoTime());
+                    if (++idle > IDLE_SPINS) {
+                        LockSupport.parkNanos(IDLE_PARK_NANOS);
+                    } else {
+                        Thread.onSpinWait();
+                    }
+                    continue;
+                }
+                idle = 0;
+                process(message);
+                long now = System.nanoTime();
+                acks.add(message, now);
+                acks.flushIfDue(now);
+            }
+            acks.flush(System.nanoTime());
+        }
+
+        private void process(InboundMessage message) {
+            try {
+                Order order = codecFor(codecs, message.getTopic())
+                        .decode(message.getPayloadArray(), message.getPayloadOffset(), message.getPayloadLength());
+                handler.onOrder(order, message);
+                processed.lazySet(processed.get() + 1);
+            } catch (RuntimeException e) {
+                failed.lazySet(failed.get() + 1);
+                events.log(errors, "Failed to process message on " + message.getTopic() + ": ", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.solace.practice.dashboard;
+
+import com.solace.practice.model.Order;
+import com.solace.practice.transport.InboundMessage;
+
+/** The dashboard's business logic for one order event. */
+@FunctionalInterface
+public interface OrderHandler {
+
+    /**
+     * Called on a consumer worker thread. Every event for one orderId goes
+     * to the same worker, in the order the queue delivered them.
+     */
+    void onOrder(Order order, InboundMessage message);
+}
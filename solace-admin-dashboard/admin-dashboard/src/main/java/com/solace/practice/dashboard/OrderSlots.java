@@ -0,0 +1,59 @@
+package com.solace.practice.dashboard;
+
+import com.solace.practice.model.OrderDimensions;
+import com.solace.practice.model.OrderStatus;
+
+/**
+ * Array indices for the dashboard's breakdowns by region, status and
+ * priority.
+ *
+ * The known values of each dimension come first, in OrderDimensions or enum
+ * order. The last slot collects anything else (an unknown region, a missing
+ * status), so an unexpected order is still counted rather than dropped.
+ */
+public final class OrderSlots {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    public static final int REGION_SLOTS = OrderDimensions.regionCount() + 1;
+    public static final int STATUS_SLOTS = STATUSES.length + 1;
+    public static final int PRIORITY_SLOTS = OrderDimensions.priorityCount() + 1;
+
+    /** Size of a flat array with one entry per region/status/priority combination. */
+    public static final int CELLS = REGION_SLOTS * STATUS_SLOTS * PRIORITY_SLOTS;
+
+    private static final String OTHER = "OTHER";
+
+    private OrderSlots() {}
+
+    public static int region(String region) {
+        int index = OrderDimensions.regionIndex(region);
+        return index < 0 ? REGION_SLOTS - 1 : index;
+    }
+
+    public static int status(OrderStatus status) {
+        return status == null ? STATUS_SLOTS - 1 : status.ordinal();
+    }
+
+    public static int priority(String priority) {
+        int index = OrderDimensions.priorityIndex(priority);
+        return index < 0 ? PRIORITY_SLOTS - 1 : index;
+    }
+
+    public static String regionLabel(int slot) {
+        return slot < REGION_SLOTS - 1 ? OrderDimensions.region(slot) : OTHER;
+    }
+
+    public static String statusLabel(int slot) {
+        return slot < STATUS_SLOTS - 1 ? STATUSES[slot].name() : OTHER;
+    }
+
+    public static String priorityLabel(int slot) {
+        return slot < PRIORITY_SLOTS - 1 ? OrderDimensions.priority(slot) : OTHER;
+    }
+
+    /** Index of a region/status/priority combination in a flat array of {@link #CELLS} entries. */
+    public static int cell(int regionSlot, int statusSlot, int prioritySlot) {
+        return (regionSlot * STATUS_SLOTS + statusSlot) * PRIORITY_SLOTS + prioritySlot;
+    }
+}
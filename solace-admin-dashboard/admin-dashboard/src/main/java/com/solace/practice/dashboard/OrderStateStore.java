@@ -0,0 +1,413 @@
+package com.solace.practice.dashboard;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * The latest status, region, priority and amount of every live order, kept
+ * off the Java heap so that millions of orders cost the garbage collector
+ * nothing.
+ *
+ * An open-addressing hash table with linear probing, keyed by the two longs
+ * of the orderId UUID (see OrderKeys). Each 32-byte slot is
+ *
+ * <pre>
+ *    0  long  mostSigBits
+ *    8  long  leastSigBits
+ *   16  long  state: version (32) | priority (8) | region (8) | status (8) | flags (8)
+ *   24  long  amount in FixedPoint units
+ * </pre>
+ *
+ * The state word is a per-slot seqlock. A writer CASes its LOCKED bit on,
+ * writes the slot and stores a new state with the version bumped; readers
+ * check the state is unchanged after reading. So writers to different keys
+ * never block each other, and readers and iteration never block writers.
+ *
+ * Writes to the <em>same</em> key must come from one thread at a time,
+ * which {@link OrderConsumer} guarantees by giving each order to one worker.
+ *
+ * Removed orders leave a tombstone that a later insert can reuse. The table
+ * never grows: while {@code capacity} orders are held, new ones are
+ * refused until some are removed. Tombstones that are not reused lengthen
+ * probes, so once they fill an eighth of the table the next insert
+ * compacts it in place, rehashing every live order. Compaction needs the
+ * table to itself: every operation holds the shared side of a
+ * {@link StampedLock} and compaction the exclusive side, so it waits for
+ * operations in progress, including a {@link #forEach}, and briefly stops
+ * new ones. That is one pass over the table for every eighth of it freed.
+ */
+public class OrderStateStore {
+
+    /** Returned by {@link #put} for an order not seen before. */
+    public static final int ABSENT = -1;
+    /** Returned by {@link #put} when the table has no room for another order. */
+    public static final int FULL = -2;
+    // Returned internally when an insert has to wait for the tombstones to be cleared
+    private static final int CROWDED = -3;
+
+    private static final int SLOT_SIZE = 32;
+    private static final int KEY_HIGH = 0;
+    private static final int KEY_LOW = 8;
+    private static final int STATE = 16;
+    private static final int AMOUNT = 24;
+
+    // 2^25 slots of 32 bytes is 1 GB, the most one buffer holds comfortably
+    private static final int SLOTS_PER_BUFFER_BITS = 25;
+
+    private static final long LOCKED = 1;
+    private static final long LIVE = 2;
+    private static final long TOMBSTONE = 4;
+    private static final long VERSION_UNIT = 1L << 32;
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /** Receives one live order during {@link #forEach}. */
+    @FunctionalInterface
+    public interface Visitor {
+        void visit(long mostSigBits, long leastSigBits, int attributes, long amountUnits);
+    }
+
+    private final ByteBuffer[] buffers;
+    private final int slotBits;
+    private final long slotMask;
+    private final long capacity;
+    private final long tombstoneLimit;
+    private final AtomicLong live = new AtomicLong();
+    private final AtomicLong tombstones = new AtomicLong();
+    private final StampedLock compaction = new StampedLock();
+
+    /** @param capacity most orders held at once; the table is sized for a load factor of 0.75 */
+    public OrderStateStore(long capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+        }
+        long slots = Long.highestOneBit(Math.max(2, capacity * 4 / 3) - 1) << 1;
+        if (slots > 1L << 40) {
+            throw new IllegalArgumentException("capacity too large: " + capacity);
+        }
+        this.capacity = capacity;
+        this.slotBits = Long.numberOfTrailingZeros(slots);
+        this.slotMask = slots - 1;
+        this.tombstoneLimit = Math.max(1, slots / 8);
+        int bufferBits = Math.min(slotBits, SLOTS_PER_BUFFER_BITS);
+        this.buffers = new ByteBuffer[(int) (slots >>> bufferBits)];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = ByteBuffer.allocateDirect((1 << bufferBits) * SLOT_SIZE).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /** Packs an order's dimensions into the int form {@link #put} and {@link #get} use. */
+    public static int attributes(int statusSlot, int regionSlot, int prioritySlot) {
+        return statusSlot | regionSlot << 8 | prioritySlot << 16;
+    }
+
+    public static int statusSlot(int attributes) { return attributes & 0xFF; }
+
+    public static int regionSlot(int attributes) { return (attributes >>> 8) & 0xFF; }
+
+    public static int prioritySlot(int attributes) { return (attributes >>> 16) & 0xFF; }
+
+    /**
+     * Records the latest state of an order.
+     *
+     * @return the order's previous attributes, {@link #ABSENT} if it is new,
+     *         or {@link #FULL} if it is new and there is no room for it
+     */
+    public int put(long mostSigBits, long leastSigBits, int attributes, long amountUnits) {
+        while (true) {
+            long stamp = compaction.readLock();
+            int previous;
+            try {
+                previous = tryPut(mostSigBits, leastSigBits, attributes, amountUnits);
+            } finally {
+                compaction.unlockRead(stamp);
+            }
+            if (previous != CROWDED) {
+                return previous;
+            }
+            compact();
+        }
+    }
+
+    private int tryPut(long mostSigBits, long leastSigBits, int attributes, long amountUnits) {
+        long slot = slotFor(mostSigBits, leastSigBits);
+        long reusable = -1;
+        for (long probes = 0; probes <= slotMask; probes++, slot = (slot + 1) & slotMask) {
+            ByteBuffer buffer = buffer(slot);
+            int base = offset(slot);
+            long state = awaitUnlocked(buffer, base);
+            if (state == 0) {
+                if (!reserve()) {
+                    return FULL;
+                }
+                if (reusable >= 0 && claimTombstone(reusable, mostSigBits, leastSigBits, attributes, amountUnits)) {
+                    return ABSENT;
+                }
+                if (tombstones.get() >= tombstoneLimit) {
+                    live.decrementAndGet();
+                    return CROWDED;
+                }
+                if (LONGS.compareAndSet(buffer, base + STATE, 0L, LOCKED)) {
+                    write(buffer, base, mostSigBits, leastSigBits, 0, attributes, amountUnits);
+                    return ABSENT;
+                }
+                // Another key took it; look at it again
+                live.decrementAndGet();
+                slot = (slot - 1) & slotMask;
+                probes--;
+            } else if ((state & TOMBSTONE) != 0) {
+                if (reusable < 0) {
+                    reusable = slot;
+                }
+            } else if (matches(buffer, base, mostSigBits, leastSigBits)) {
+                if (LONGS.compareAndSet(buffer, base + STATE, state, state | LOCKED)) {
+                    write(buffer, base, mostSigBits, leastSigBits, state, attributes, amountUnits);
+                    return (int) (state >>> 8) & 0xFFFFFF;
+                }
+                slot = (slot - 1) & slotMask;
+                probes--;
+            }
+        }
+        if (reusable >= 0 && reserve()) {
+            if (claimTombstone(reusable, mostSigBits, leastSigBits, attributes, amountUnits)) {
+                return ABSENT;
+            }
+            live.decrementAndGet();
+        }
+        return FULL;
+    }
+
+    /** The order's attributes, or {@link #ABSENT}. */
+    public int get(long mostSigBits, long leastSigBits) {
+        long stamp = compaction.readLock();
+        try {
+            return find(mostSigBits, leastSigBits);
+        } finally {
+            compaction.unlockRead(stamp);
+        }
+    }
+
+    private int find(long mostSigBits, long leastSigBits) {
+        long slot = slotFor(mostSigBits, leastSigBits);
+        for (long probes = 0; probes <= slotMask; probes++, slot = (slot + 1) & slotMask) {
+            ByteBuffer buffer = buffer(slot);
+            int base = offset(slot);
+            while (true) {
+                long state = awaitUnlocked(buffer, base);
+                if (state == 0) {
+                    return ABSENT;
+                }
+                boolean found = (state & LIVE) != 0 && matches(buffer, base, mostSigBits, leastSigBits);
+                if ((long) LONGS.getVolatile(buffer, base + STATE) == state) {
+                    if (found) {
+                        return (int) (state >>> 8) & 0xFFFFFF;
+                    }
+                    break;
+                }
+            }
+        }
+        return ABSENT;
+    }
+
+    /** Forgets an order, e.g. once it can no longer change. Returns its attributes, or {@link #ABSENT}. */
+    public int remove(long mostSigBits, long leastSigBits) {
+        long stamp = compaction.readLock();
+        try {
+            return tryRemove(mostSigBits, leastSigBits);
+        } finally {
+            compaction.unlockRead(stamp);
+        }
+    }
+
+    private int tryRemove(long mostSigBits, long leastSigBits) {
+        long slot = slotFor(mostSigBits, leastSigBits);
+        for (long probes = 0; probes <= slotMask; probes++, slot = (slot + 1) & slotMask) {
+            ByteBuffer buffer = buffer(slot);
+            int base = offset(slot);
+            long state = awaitUnlocked(buffer, base);
+            if (state == 0) {
+                return ABSENT;
+            }
+            if ((state & LIVE) != 0 && matches(buffer, base, mostSigBits, leastSigBits)) {
+                if (LONGS.compareAndSet(buffer, base + STATE, state, nextVersion(state) | TOMBSTONE)) {
+                    live.decrementAndGet();
+                    tombstones.incrementAndGet();
+                    return (int) (state >>> 8) & 0xFFFFFF;
+                }
+                slot = (slot - 1) & slotMask;
+                probes--;
+            }
+        }
+        return ABSENT;
+    }
+
+    /**
+     * Calls the visitor for every live order. Orders changed during the walk
+     * are seen either before or after the change, never half-written.
+     */
+    public void forEach(Visitor visitor) {
+        long stamp = compaction.readLock();
+        try {
+            visitAll(visitor);
+        } finally {
+            compaction.unlockRead(stamp);
+        }
+    }
+
+    private void visitAll(Visitor visitor) {
+        for (long slot = 0; slot <= slotMask; slot++) {
+            ByteBuffer buffer = buffer(slot);
+            int base = offset(slot);
+            while (true) {
+                long state = awaitUnlocked(buffer, base);
+                if ((state & LIVE) == 0) {
+                    break;
+                }
+                long high = (long) LONGS.get(buffer, base + KEY_HIGH);
+                long low = (long) LONGS.get(buffer, base + KEY_LOW);
+                long amount = (long) LONGS.get(buffer, base + AMOUNT);
+                if ((long) LONGS.getVolatile(buffer, base + STATE) == state) {
+                    visitor.visit(high, low, (int) (state >>> 8) & 0xFFFFFF, amount);
+                    break;
+                }
+            }
+        }
+    }
+
+    /** Orders currently held. */
+    public long size() {
+        return live.get();
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    /** Off-heap bytes reserved for the table. */
+    public long memoryBytes() {
+        return (slotMask + 1) * SLOT_SIZE;
+    }
+
+    private boolean claimTombstone(long slot, long mostSigBits, long leastSigBits, int attributes, long amountUnits) {
+        ByteBuffer buffer = buffer(slot);
+        int base = offset(slot);
+        long state = (long) LONGS.getVolatile(buffer, base + STATE);
+        if ((state & TOMBSTONE) == 0 || (state & LOCKED) != 0
+                || !LONGS.compareAndSet(buffer, base + STATE, state, state | LOCKED)) {
+            return false;
+        }
+        tombstones.decrementAndGet();
+        write(buffer, base, mostSigBits, leastSigBits, state, attributes, amountUnits);
+        return true;
+    }
+
+    /** Counts one more live order, unless that would pass capacity. */
+    private boolean reserve() {
+        if (live.incrementAndGet() > capacity) {
+            live.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Clears every tombstone and moves each live order back as close to
+     * its home slot as the others allow.
+     *
+     * The walk starts after an empty slot, which no probe sequence crosses,
+     * and goes once round the table. Every slot before the current one is
+     * then settled: a live order's probe from its home meets only settled
+     * slots, and the first empty one it meets is at worst its own.
+     */
+    private void compact() {
+        long stamp = compaction.writeLock();
+        try {
+            if (tombstones.get() < tombstoneLimit) {
+                // Another insert compacted first
+                return;
+            }
+            long start = 0;
+            while (start <= slotMask && state(start) != 0) {
+                start++;
+            }
+            if (start > slotMask) {
+                // No empty slot, so no insert can be waiting for one
+                return;
+            }
+            for (long i = 1; i <= slotMask; i++) {
+                long slot = (start + i) & slotMask;
+                ByteBuffer buffer = buffer(slot);
+                int base = offset(slot);
+                long state = state(slot);
+                if ((state & TOMBSTONE) != 0) {
+                    LONGS.set(buffer, base + STATE, 0L);
+                } else if ((state & LIVE) != 0) {
+                    long high = (long) LONGS.get(buffer, base + KEY_HIGH);
+                    long low = (long) LONGS.get(buffer, base + KEY_LOW);
+                    LONGS.set(buffer, base + STATE, 0L);
+                    long target = slotFor(high, low);
+                    while (state(target) != 0) {
+                        target = (target + 1) & slotMask;
+                    }
+                    ByteBuffer targetBuffer = buffer(target);
+                    int targetBase = offset(target);
+                    LONGS.set(targetBuffer, targetBase + KEY_HIGH, high);
+                    LONGS.set(targetBuffer, targetBase + KEY_LOW, low);
+                    LONGS.set(targetBuffer, targetBase + AMOUNT, (long) LONGS.get(buffer, base + AMOUNT));
+                    LONGS.set(targetBuffer, targetBase + STATE, state);
+                }
+            }
+            tombstones.set(0);
+        } finally {
+            compaction.unlockWrite(stamp);
+        }
+    }
+
+    private long state(long slot) {
+        return (long) LONGS.get(buffer(slot), offset(slot) + STATE);
+    }
+
+    /** Fills a slot whose state the caller has locked, then unlocks it with the new attributes. */
+    private static void write(ByteBuffer buffer, int base, long mostSigBits, long leastSigBits, long oldState,
+                              int attributes, long amountUnits) {
+        LONGS.set(buffer, base + KEY_HIGH, mostSigBits);
+        LONGS.set(buffer, base + KEY_LOW, leastSigBits);
+        LONGS.set(buffer, base + AMOUNT, amountUnits);
+        LONGS.setVolatile(buffer, base + STATE, nextVersion(oldState) | (long) attributes << 8 | LIVE);
+    }
+
+    private static long nextVersion(long state) {
+        return (state & -VERSION_UNIT) + VERSION_UNIT;
+    }
+
+    private static long awaitUnlocked(ByteBuffer buffer, int base) {
+        long state;
+        while (((state = (long) LONGS.getVolatile(buffer, base + STATE)) & LOCKED) != 0) {
+            Thread.onSpinWait();
+        }
+        return state;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int base, long mostSigBits, long leastSigBits) {
+        return (long) LONGS.get(buffer, base + KEY_HIGH) == mostSigBits
+                && (long) LONGS.get(buffer, base + KEY_LOW) == leastSigBits;
+    }
+
+    private long slotFor(long mostSigBits, long leastSigBits) {
+        // Random UUIDs are well mixed already, but other ids need not be
+        long hash = (mostSigBits ^ Long.rotateLeft(leastSigBits, 32)) * 0x9E3779B97F4A7C15L;
+        return hash >>> (64 - slotBits);
+    }
+
+    private ByteBuffer buffer(long slot) {
+        return buffers[(int) (slot >>> Math.min(slotBits, SLOTS_PER_BUFFER_BITS))];
+    }
+
+    private int offset(long slot) {
+        return (int) (slot & ((1L << Math.min(slotBits, SLOTS_PER_BUFFER_BITS)) - 1)) * SLOT_SIZE;
+    }
+}
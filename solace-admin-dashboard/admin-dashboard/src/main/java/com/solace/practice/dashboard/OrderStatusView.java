@@ -0,0 +1,64 @@
+package com.solace.practice.dashboard;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * How many orders are in each status right now, per region and priority.
+ *
+ * Counting events would say how many orders ever reached SHIPPED; this
+ * counts the ones still there. When an order moves from one
+ * region/status/priority cell to another, the new cell is incremented and
+ * the old one decremented, using the previous state the
+ * {@link OrderStateStore} returns. Answering "how many are shipped but not
+ * delivered" is then a read of a few counters rather than a rescan.
+ *
+ * The counts are exact for orders whose state the store holds. An order it
+ * had no room for is counted in each status it is seen in, as events are.
+ * Delivered and cancelled orders are removed from the store, so a
+ * redelivered DELIVERED or CANCELLED event finds nothing to move and
+ * counts the order a second time; with client acknowledgements sent in
+ * batches, that happens to every final event redelivered after a
+ * reconnect. Non-final statuses are not affected.
+ */
+public class OrderStatusView {
+
+    private final LongAdder[] current = new LongAdder[OrderSlots.CELLS];
+
+    public OrderStatusView() {
+        for (int i = 0; i < current.length; i++) {
+            current[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Moves one order into {@code cell} (see {@link OrderSlots#cell}).
+     *
+     * @param previousAttributes the order's attributes before this event, or
+     *        {@link OrderStateStore#ABSENT} if it had none
+     */
+    public void transition(int previousAttributes, int cell) {
+        // Incrementing first means a concurrent reader may briefly see the order twice but never not at all
+        current[cell].increment();
+        if (previousAttributes >= 0) {
+            current[OrderSlots.cell(OrderStateStore.regionSlot(previousAttributes),
+                    OrderStateStore.statusSlot(previousAttributes),
+                    OrderStateStore.prioritySlot(previousAttributes))].decrement();
+        }
+    }
+
+    /** Adds counts taken by {@link #snapshot}, e.g. before a restart. */
+    public void add(long[] counts) {
+        for (int i = 0; i < current.length; i++) {
+            current[i].add(counts[i]);
+        }
+    }
+
+    /** Current counts indexed by {@link OrderSlots#cell}. */
+    public long[] snapshot() {
+        long[] counts = new long[current.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = current[i].sum();
+        }
+        return counts;
+    }
+}
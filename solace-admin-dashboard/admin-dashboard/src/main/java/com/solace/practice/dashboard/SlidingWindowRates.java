@@ -0,0 +1,117 @@
+package com.solace.practice.dashboard;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Orders per second and revenue per second over the last 1s, 10s, 60s and
+ * 15 minutes.
+ *
+ * Recording an order only adds to two striped running totals. Once a second
+ * {@link #tick} copies the totals, with the time they were read, into the
+ * next bucket of a ring; the rate over a window is then the difference
+ * between the newest bucket and the one the window's length before it,
+ * divided by the time between them. Nothing is ever rescanned, and a late
+ * or missed tick only makes a window slightly longer rather than wrong.
+ *
+ * Revenue is kept in {@link FixedPoint} units. The running total may wrap
+ * around, but the difference across any window is still exact.
+ *
+ * Ticks must come from one thread. Reads take no lock and may come from any
+ * thread.
+ */
+public class SlidingWindowRates {
+
+    private static final int[] WINDOW_SECONDS = {1, 10, 60, 900};
+
+    // Longer than the longest window, so a reader has slack before its buckets are reused
+    private static final int BUCKETS = 1024;
+    private static final int MASK = BUCKETS - 1;
+
+    private final LongAdder orders = new LongAdder();
+    private final LongAdder revenueUnits = new LongAdder();
+
+    // Bucket i holds the totals of tick i & MASK; written only by the ticking thread
+    private final long[] bucketNanos = new long[BUCKETS];
+    private final long[] bucketOrders = new long[BUCKETS];
+    private final long[] bucketRevenue = new long[BUCKETS];
+    // Number of ticks taken; the volatile write publishes the bucket it covers
+    private volatile long ticks;
+
+    public void record(long amountUnits) {
+        orders.increment();
+        revenueUnits.add(amountUnits);
+    }
+
+    /** Closes the current bucket. Call about once a second, always from the same thread. */
+    public void tick(long nowNanos) {
+        long tick = ticks;
+        int index = (int) tick & MASK;
+        bucketNanos[index] = nowNanos;
+        bucketOrders[index] = orders.sum();
+        bucketRevenue[index] = revenueUnits.sum();
+        ticks = tick + 1;
+    }
+
+    /** Number of windows reported. */
+    public static int windowCount() {
+        return WINDOW_SECONDS.length;
+    }
+
+    /** Length of window {@code window}, in seconds; windows are shortest first. */
+    public static int windowSeconds(int window) {
+        return WINDOW_SECONDS[window];
+    }
+
+    /** Rates over each window, as of the last tick. */
+    public Snapshot snapshot() {
+        double[] ordersPerSecond = new double[WINDOW_SECONDS.length];
+        double[] revenuePerSecond = new double[WINDOW_SECONDS.length];
+        while (true) {
+            long tick = ticks;
+            if (tick >= 2) {
+                int newest = (int) (tick - 1) & MASK;
+                for (int w = 0; w < WINDOW_SECONDS.length; w++) {
+                    // Until the window has filled, report over however long has been seen
+                    int oldest = (int) Math.max(0, tick - 1 - WINDOW_SECONDS[w]) & MASK;
+                    double seconds = (bucketNanos[newest] - bucketNanos[oldest]) / 1e9;
+                    if (seconds > 0) {
+                        ordersPerSecond[w] = (bucketOrders[newest] - bucketOrders[oldest]) / seconds;
+                        revenuePerSecond[w] = FixedPoint.toDouble(bucketRevenue[newest] - bucketRevenue[oldest]) / seconds;
+                    }
+                }
+            }
+            // Only a reader stalled for over a hundred ticks can see a reused bucket
+            if (ticks - tick < BUCKETS - 1 - WINDOW_SECONDS[WINDOW_SECONDS.length - 1]) {
+                return new Snapshot(ordersPerSecond, revenuePerSecond);
+            }
+        }
+    }
+
+    /** Rates per window, indexed like {@link #windowSeconds}. */
+    public static final class Snapshot {
+
+        private final double[] ordersPerSecond;
+        private final double[] revenuePerSecond;
+
+        private Snapshot(double[] ordersPerSecond, double[] revenuePerSecond) {
+            this.ordersPerSecond = ordersPerSecond;
+            this.revenuePerSecond = revenuePerSecond;
+        }
+
+        public double getOrdersPerSecond(int window) { return ordersPerSecond[window]; }
+
+        public double getRevenuePerSecond(int window) { return revenuePerSecond[window]; }
+    }
+
+    /** "15m" style label for a window. */
+    public static String label(int window) {
+        int seconds = WINDOW_SECONDS[window];
+        if (seconds % 3600 == 0) {
+            return seconds / 3600 + "h";
+        }
+        if (seconds % 60 == 0) {
+            return seconds / 60 + "m";
+        }
+        return seconds + "s";
+    }
+}
@@ -0,0 +1,71 @@
+package com.solace.practice.dashboard;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded single-producer, single-consumer queue on a power-of-two array.
+ *
+ * Each side owns one index and only reads the other's when its cached copy
+ * says the ring looks full (producer) or empty (consumer), so most offers
+ * and polls read no index written by the other thread.
+ * Indices are published with lazySet, which is all a single writer needs.
+ *
+ * Exactly one thread may call {@link #offer} and one thread {@link #poll}.
+ */
+public final class SpscRing<E> {
+
+    private final Object[] buffer;
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    // Last seen value of the other side's index; each is touched by one thread only
+    private long headCache;
+    private long tailCache;
+
+    /** @param capacity rounded up to a power of two */
+    public SpscRing(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity - 1) << 1;
+        this.buffer = new Object[size];
+        this.mask = size - 1;
+    }
+
+    /** Adds the element, or returns false if the ring is full. Producer thread only. */
+    public boolean offer(E element) {
+        long t = tail.get();
+        if (t - headCache >= buffer.length) {
+            headCache = head.get();
+            if (t - headCache >= buffer.length) {
+                return false;
+            }
+        }
+        buffer[(int) t & mask] = element;
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    /** Removes the oldest element, or returns null if the ring is empty. Consumer thread only. */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long h = head.get();
+        if (h >= tailCache) {
+            tailCache = tail.get();
+            if (h >= tailCache) {
+                return null;
+            }
+        }
+        int index = (int) h & mask;
+        E element = (E) buffer[index];
+        buffer[index] = null;
+        head.lazySet(h + 1);
+        return element;
+    }
+
+    /** Approximate number of queued elements; safe from any thread. */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+}
@@ -0,0 +1,120 @@
+package com.solace.practice.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class CountMinSketchTest {
+
+    private static final int DEPTH = 4;
+    private static final int WIDTH = 1024;
+    private static final int KEYS = 50_000;
+
+    @Test
+    void estimatesStayWithinTheErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        long[] counts = new long[KEYS];
+        long total = 0;
+        SplittableRandom random = new SplittableRandom(3);
+        for (int i = 0; i < 1_000_000; i++) {
+            // Skewed, like real customers: low keys are much more frequent
+            int key = (int) (KEYS * Math.pow(random.nextDouble(), 3));
+            long amount = 1 + random.nextInt(5);
+            sketch.add(KeyHash.of("key-" + key), amount);
+            counts[key] += amount;
+            total += amount;
+        }
+
+        // Each key overshoots e / width of the total with probability at most e^-depth, about 1.8%
+        long bound = (long) (Math.E / WIDTH * total);
+        int over = 0;
+        for (int key = 0; key < KEYS; key++) {
+            long estimate = sketch.estimate(KeyHash.of("key-" + key));
+            assertTrue(estimate >= counts[key], "key " + key + " estimated " + estimate + " < " + counts[key]);
+            if (estimate - counts[key] > bound) {
+                over++;
+            }
+        }
+        assertTrue(over < KEYS * Math.exp(-DEPTH), over + " keys overshot by more than " + bound);
+    }
+
+    @Test
+    void addReturnsTheNewEstimate() {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        long hash = KeyHash.of("CUST-1");
+
+        assertEquals(5, sketch.add(hash, 5));
+        assertEquals(12, sketch.add(hash, 7));
+        assertEquals(12, sketch.estimate(hash));
+        assertEquals(0, sketch.estimate(KeyHash.of("CUST-2")));
+    }
+
+    @Test
+    void countsEveryAddFromManyThreads() throws InterruptedException {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        long hash = KeyHash.of("CUST-1");
+        List<Thread> adders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread adder = new Thread(() -> {
+                for (int i = 0; i < 100_000; i++) {
+                    sketch.add(hash, 1);
+                }
+            });
+            adders.add(adder);
+            adder.start();
+        }
+        for (Thread adder : adders) {
+            adder.join();
+        }
+
+        assertEquals(400_000, sketch.estimate(hash));
+    }
+
+    @Test
+    void addsRestoredCountersToItsOwn() throws IOException {
+        CountMinSketch sketch = new CountMinSketch(DEPTH, WIDTH);
+        for (int key = 0; key < 5000; key++) {
+            sketch.add(KeyHash.of("key-" + key), 1 + key % 7);
+        }
+        byte[] saved = saved(sketch);
+        CountMinSketch restored = new CountMinSketch(DEPTH, WIDTH);
+
+        restored.readFrom(ByteBuffer.wrap(saved));
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(sketch.estimate(KeyHash.of("key-" + key)), restored.estimate(KeyHash.of("key-" + key)));
+        }
+        restored.readFrom(ByteBuffer.wrap(saved));
+        for (int key = 0; key < 5000; key++) {
+            assertEquals(2 * sketch.estimate(KeyHash.of("key-" + key)), restored.estimate(KeyHash.of("key-" + key)));
+        }
+    }
+
+    @Test
+    void rejectsCountersOfAnotherSize() throws IOException {
+        byte[] saved = saved(new CountMinSketch(DEPTH, WIDTH));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> new CountMinSketch(DEPTH + 1, WIDTH).readFrom(ByteBuffer.wrap(saved)));
+        assertThrows(IllegalArgumentException.class,
+                () -> new CountMinSketch(DEPTH, WIDTH * 2).readFrom(ByteBuffer.wrap(saved)));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, WIDTH));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(DEPTH, 0));
+    }
+
+    private static byte[] saved(CountMinSketch sketch) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            sketch.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+}
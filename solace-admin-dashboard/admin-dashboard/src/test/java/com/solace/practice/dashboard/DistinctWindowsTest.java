@@ -0,0 +1,83 @@
+package com.solace.practice.dashboard;
+
+import static com.solace.practice.dashboard.HyperLogLogTest.assertWithinError;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class DistinctWindowsTest {
+
+    private static final long MINUTE = TimeUnit.MINUTES.toNanos(1);
+    private static final long START = 123_456_789L;
+
+    @Test
+    void eachWindowCountsItsOwnMinutes() {
+        DistinctWindows windows = new DistinctWindows();
+        windows.tick(START);
+        for (int minute = 0; minute < 70; minute++) {
+            addCustomers(windows, "minute-" + minute + "-", 1000);
+            windows.tick(START + (minute + 1) * MINUTE);
+        }
+        // The current minute is empty, so each window holds its N most recent full minutes
+        long[] estimates = windows.estimates();
+
+        assertEquals(3, DistinctWindows.windowCount());
+        assertEquals("1m", DistinctWindows.label(0));
+        assertWithinError(1000, estimates[0]);
+        assertWithinError(15_000, estimates[1]);
+        assertWithinError(60_000, estimates[2]);
+    }
+
+    @Test
+    void youngWindowsOnlyCountTheMinutesSoFar() {
+        DistinctWindows windows = new DistinctWindows();
+        windows.tick(START);
+        for (int minute = 0; minute < 5; minute++) {
+            addCustomers(windows, "minute-" + minute + "-", 1000);
+            windows.tick(START + (minute + 1) * MINUTE);
+        }
+        addCustomers(windows, "now-", 500);
+
+        long[] estimates = windows.estimates();
+
+        assertWithinError(1500, estimates[0]);
+        assertWithinError(5500, estimates[1]);
+        assertWithinError(5500, estimates[2]);
+    }
+
+    @Test
+    void customersSeenEveryMinuteCountOnce() {
+        DistinctWindows windows = new DistinctWindows();
+        windows.tick(START);
+        for (int minute = 0; minute < 20; minute++) {
+            addCustomers(windows, "regular-", 2000);
+            windows.tick(START + (minute + 1) * MINUTE);
+        }
+
+        long[] estimates = windows.estimates();
+
+        for (long estimate : estimates) {
+            assertWithinError(2000, estimate);
+        }
+    }
+
+    @Test
+    void aLongPauseEmptiesEveryWindow() {
+        DistinctWindows windows = new DistinctWindows();
+        windows.tick(START);
+        addCustomers(windows, "early-", 3000);
+
+        windows.tick(START + 2 * 60 * MINUTE);
+
+        for (long estimate : windows.estimates()) {
+            assertEquals(0, estimate);
+        }
+    }
+
+    private static void addCustomers(DistinctWindows windows, String prefix, int count) {
+        for (int i = 0; i < count; i++) {
+            windows.add(KeyHash.of(prefix + i));
+        }
+    }
+}
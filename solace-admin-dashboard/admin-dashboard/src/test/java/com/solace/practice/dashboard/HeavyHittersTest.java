@@ -0,0 +1,156 @@
+package com.solace.practice.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HeavyHittersTest {
+
+    private static final int HEAVY_KEYS = 10;
+    private static final int LIGHT_KEYS = 300_000;
+
+    @Test
+    void ranksTheHeaviestKeysAmongManyLightOnes() {
+        HeavyHitters hitters = new HeavyHitters(HEAVY_KEYS);
+        for (String key : stream()) {
+            hitters.add(key, 1);
+        }
+
+        assertRanked(hitters.top());
+    }
+
+    @Test
+    void ranksTheHeaviestKeysWhenAddedFromManyThreads() throws InterruptedException {
+        HeavyHitters hitters = new HeavyHitters(HEAVY_KEYS);
+        List<String> stream = stream();
+        int threads = 4;
+        List<Thread> adders = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            List<String> share = stream.subList(stream.size() * t / threads, stream.size() * (t + 1) / threads);
+            Thread adder = new Thread(() -> share.forEach(key -> hitters.add(key, 1)));
+            adders.add(adder);
+            adder.start();
+        }
+        for (Thread adder : adders) {
+            adder.join();
+        }
+
+        assertRanked(hitters.top());
+    }
+
+    @Test
+    void raisesTheThresholdWhenAChallengerIsRejected() {
+        HeavyHitters hitters = new HeavyHitters(2);
+        hitters.add("a", 10);
+        hitters.add("b", 10);
+        assertEquals(10, hitters.threshold());
+        hitters.add("a", 90);
+        hitters.add("b", 90);
+
+        hitters.add("c", 20);
+
+        assertEquals(100, hitters.threshold(), "a rejected challenger should lift the threshold to the smallest leader");
+        assertEquals(List.of("a=100", "b=100"), sorted(entries(hitters)));
+        hitters.add("d", 50);
+        assertEquals(List.of("a=100", "b=100"), sorted(entries(hitters)));
+    }
+
+    @Test
+    void aChallengerPassingTheSmallestLeaderDisplacesIt() {
+        HeavyHitters hitters = new HeavyHitters(2);
+        hitters.add("a", 10);
+        hitters.add("b", 30);
+
+        hitters.add("c", 20);
+
+        assertEquals(List.of("b=30", "c=20"), entries(hitters));
+        assertEquals(20, hitters.threshold());
+    }
+
+    @Test
+    void restoresSavedLeaders() throws IOException {
+        HeavyHitters hitters = new HeavyHitters(3);
+        for (int i = 0; i < 100; i++) {
+            hitters.add("key-" + (i % 10), i % 10);
+        }
+        HeavyHitters restored = new HeavyHitters(3);
+
+        restored.readFrom(ByteBuffer.wrap(saved(hitters)));
+
+        assertEquals(entries(hitters), entries(restored));
+    }
+
+    @Test
+    void rejectsADamagedKeyLength() throws IOException {
+        HeavyHitters hitters = new HeavyHitters(3);
+        hitters.add("key", 1);
+        byte[] saved = saved(hitters);
+        // Sketch header and counters, then the leader count; the first key length follows
+        int keyLength = saved.length - Long.BYTES - "key".length() - Integer.BYTES;
+
+        for (int length : new int[] {-1, Integer.MAX_VALUE}) {
+            ByteBuffer.wrap(saved).putInt(keyLength, length);
+            assertThrows(IllegalArgumentException.class,
+                    () -> new HeavyHitters(3).readFrom(ByteBuffer.wrap(saved)), "length " + length);
+        }
+    }
+
+    /** Heavy key i occurs (i + 1) * 1000 times, among LIGHT_KEYS keys seen once each, shuffled. */
+    private static List<String> stream() {
+        List<String> stream = new ArrayList<>();
+        for (int i = 0; i < HEAVY_KEYS; i++) {
+            for (int n = 0; n < (i + 1) * 1000; n++) {
+                stream.add("heavy-" + i);
+            }
+        }
+        for (int i = 0; i < LIGHT_KEYS; i++) {
+            stream.add("light-" + i);
+        }
+        Collections.shuffle(stream, new Random(7));
+        return stream;
+    }
+
+    private static void assertRanked(List<HeavyHitters.Entry> top) {
+        long total = (long) HEAVY_KEYS * (HEAVY_KEYS + 1) / 2 * 1000 + LIGHT_KEYS;
+        assertEquals(HEAVY_KEYS, top.size());
+        for (int rank = 0; rank < HEAVY_KEYS; rank++) {
+            int key = HEAVY_KEYS - 1 - rank;
+            long count = (key + 1) * 1000L;
+            assertEquals("heavy-" + key, top.get(rank).getKey(), "rank " + rank);
+            assertTrue(top.get(rank).getEstimate() >= count, "estimates never fall short");
+            // A 4 x 16384 sketch overestimates by at most e/16384 of the total, with high probability
+            assertTrue(top.get(rank).getEstimate() <= count + total / 1000, "estimate " + top.get(rank).getEstimate());
+        }
+    }
+
+    private static List<String> sorted(List<String> entries) {
+        Collections.sort(entries);
+        return entries;
+    }
+
+    private static byte[] saved(HeavyHitters hitters) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            hitters.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<String> entries(HeavyHitters hitters) {
+        List<String> entries = new ArrayList<>();
+        for (HeavyHitters.Entry entry : hitters.top()) {
+            entries.add(entry.getKey() + "=" + entry.getEstimate());
+        }
+        return entries;
+    }
+}
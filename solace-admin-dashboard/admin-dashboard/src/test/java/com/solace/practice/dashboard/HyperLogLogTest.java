@@ -0,0 +1,119 @@
+package com.solace.practice.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class HyperLogLogTest {
+
+    // One standard error for 2^14 registers is 1.04 / 128, about 0.8%
+    private static final double THREE_SIGMA = 3 * 1.04 / 128;
+
+    @Test
+    void estimatesWithinThreeStandardErrors() {
+        HyperLogLog sketch = new HyperLogLog();
+        int added = 0;
+        for (int cardinality : new int[] {10, 100, 1000, 10_000, 40_000, 100_000, 1_000_000}) {
+            for (; added < cardinality; added++) {
+                sketch.add(KeyHash.of("CUST-" + added));
+            }
+
+            assertWithinError(cardinality, sketch.estimate());
+        }
+    }
+
+    @Test
+    void countsRepeatedKeysOnce() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int round = 0; round < 5; round++) {
+            for (int i = 0; i < 20_000; i++) {
+                sketch.add(KeyHash.of("CUST-" + i));
+            }
+        }
+
+        assertWithinError(20_000, sketch.estimate());
+    }
+
+    @Test
+    void mergeCountsTheUnion() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog both = new HyperLogLog();
+        for (int i = 0; i < 60_000; i++) {
+            first.add(KeyHash.of("CUST-" + i));
+            both.add(KeyHash.of("CUST-" + i));
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            second.add(KeyHash.of("CUST-" + i));
+            both.add(KeyHash.of("CUST-" + i));
+        }
+
+        first.merge(second);
+
+        assertArrayEquals(both.toBytes(), first.toBytes(), "a merge is the same as adding every key");
+        assertWithinError(100_000, first.estimate());
+    }
+
+    @Test
+    void concurrentAddsEndInTheSameRegistersAsSequentialOnes() throws InterruptedException {
+        HyperLogLog sequential = new HyperLogLog();
+        for (int i = 0; i < 200_000; i++) {
+            sequential.add(KeyHash.of("CUST-" + i));
+        }
+        HyperLogLog concurrent = new HyperLogLog();
+        List<Thread> adders = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t;
+            Thread adder = new Thread(() -> {
+                for (int i = first; i < 200_000; i += 4) {
+                    concurrent.add(KeyHash.of("CUST-" + i));
+                }
+            });
+            adders.add(adder);
+            adder.start();
+        }
+        for (Thread adder : adders) {
+            adder.join();
+        }
+
+        assertArrayEquals(sequential.toBytes(), concurrent.toBytes());
+    }
+
+    @Test
+    void restoresWrittenRegisters() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 5000; i++) {
+            sketch.add(KeyHash.of("CUST-" + i));
+        }
+        byte[] bytes = sketch.toBytes();
+
+        HyperLogLog restored = HyperLogLog.fromBytes(bytes);
+        bytes[0]++;
+
+        assertEquals(sketch.estimate(), restored.estimate());
+        assertArrayEquals(sketch.toBytes(), restored.toBytes(), "the restored sketch has its own registers");
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[100]));
+    }
+
+    @Test
+    void clearForgetsEverything() {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = 0; i < 5000; i++) {
+            sketch.add(KeyHash.of("CUST-" + i));
+        }
+
+        sketch.clear();
+
+        assertEquals(0, sketch.estimate());
+    }
+
+    static void assertWithinError(long expected, long estimate) {
+        double error = Math.abs(estimate - expected) / (double) expected;
+        assertTrue(error <= THREE_SIGMA, "estimated " + estimate + " for " + expected);
+    }
+}
@@ -0,0 +1,170 @@
+package com.solace.practice.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.solace.practice.model.Order;
+import com.solace.practice.model.OrderDimensions;
+import com.solace.practice.model.OrderStatus;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class MetricsCheckpointerTest {
+
+    private static final OrderStatus[] FLOW = {
+            OrderStatus.CREATED, OrderStatus.VALIDATED, OrderStatus.PAID, OrderStatus.SHIPPED, OrderStatus.DELIVERED
+    };
+    // Header, then one long per cell of order counts; the first saved length follows
+    private static final int FIRST_LENGTH = 12 + OrderSlots.CELLS * 8;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void restoresWhatWasSaved() throws IOException {
+        MetricsTracker metrics = new MetricsTracker(5, 10_000);
+        record(metrics, 3000, 1);
+        Path file = directory.resolve("metrics.ckpt");
+
+        new MetricsCheckpointer(metrics, file, 3600).close();
+        MetricsTracker restored = new MetricsTracker(5, 10_000);
+
+        assertTrue(MetricsCheckpointer.restore(file, restored));
+        assertSameMetrics(metrics.snapshot(), restored.snapshot());
+    }
+
+    @Test
+    void restoredOrdersMoveOnFromTheirSavedStatus() throws IOException {
+        MetricsTracker metrics = new MetricsTracker(5, 10_000);
+        List<Order> orders = record(metrics, 500, 2);
+        Path file = directory.resolve("metrics.ckpt");
+        new MetricsCheckpointer(metrics, file, 3600).close();
+        MetricsTracker restored = new MetricsTracker(5, 10_000);
+        MetricsCheckpointer.restore(file, restored);
+
+        for (Order order : orders) {
+            if (order.getStatus() != OrderStatus.DELIVERED && order.getStatus() != OrderStatus.CANCELLED) {
+                order.setStatus(OrderStatus.DELIVERED);
+                metrics.recordOrder(order, 0);
+                restored.recordOrder(order, 0);
+            }
+        }
+
+        MetricsTracker.Snapshot snapshot = restored.snapshot();
+        assertEquals(0, snapshot.getLiveOrders());
+        for (int status = 0; status < OrderSlots.STATUS_SLOTS; status++) {
+            assertEquals(metrics.snapshot().getCurrentByStatus(status), snapshot.getCurrentByStatus(status));
+            assertTrue(snapshot.getCurrentByStatus(status) >= 0);
+        }
+    }
+
+    @Test
+    void missingFileIsNotRestored() throws IOException {
+        assertFalse(MetricsCheckpointer.restore(directory.resolve("none.ckpt"), new MetricsTracker(5, 100)));
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other.ckpt");
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+
+        assertThrows(IOException.class, () -> MetricsCheckpointer.restore(file, new MetricsTracker(5, 100)));
+    }
+
+    @Test
+    void rejectsTruncatedFiles() throws IOException {
+        byte[] saved = checkpoint();
+        for (int length : new int[] {4, FIRST_LENGTH, FIRST_LENGTH + 3, saved.length / 2, saved.length - 5}) {
+            Path file = directory.resolve("truncated.ckpt");
+            Files.write(file, Arrays.copyOf(saved, length));
+
+            assertThrows(IOException.class, () -> MetricsCheckpointer.restore(file, new MetricsTracker(5, 10_000)),
+                    "cut to " + length + " bytes");
+        }
+    }
+
+    @Test
+    void rejectsDamagedLengthsWithoutAllocatingThem() throws IOException {
+        byte[] saved = checkpoint();
+        for (int length : new int[] {-1, Integer.MIN_VALUE, Integer.MAX_VALUE, saved.length}) {
+            byte[] damaged = saved.clone();
+            ByteBuffer.wrap(damaged).putInt(FIRST_LENGTH, length);
+            Path file = directory.resolve("damaged.ckpt");
+            Files.write(file, damaged);
+
+            assertThrows(IOException.class, () -> MetricsCheckpointer.restore(file, new MetricsTracker(5, 10_000)),
+                    "length " + length);
+        }
+    }
+
+    private byte[] checkpoint() throws IOException {
+        MetricsTracker metrics = new MetricsTracker(5, 10_000);
+        record(metrics, 1000, 3);
+        Path file = directory.resolve("saved.ckpt");
+        new MetricsCheckpointer(metrics, file, 3600).close();
+        return Files.readAllBytes(file);
+    }
+
+    /** Records orders moving part way through the usual flow; returns each order in its last status. */
+    private static List<Order> record(MetricsTracker metrics, int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        String[] regions = OrderDimensions.regions();
+        String[] priorities = OrderDimensions.priorities();
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Order order = new Order(new UUID(random.nextLong(), random.nextLong()).toString(),
+                    "CUST-" + random.nextInt(200), "PROD-" + random.nextInt(50), 1 + random.nextInt(5),
+                    BigDecimal.valueOf(random.nextInt(100_000), 2), OrderStatus.CREATED,
+                    regions[random.nextInt(regions.length)], priorities[random.nextInt(priorities.length)],
+                    LocalDateTime.of(2024, 1, 1, 0, 0));
+            int steps = 1 + random.nextInt(FLOW.length);
+            for (int step = 0; step < steps; step++) {
+                order.setStatus(FLOW[step]);
+                metrics.recordOrder(order, 1_000_000_000L + random.nextInt(1_000_000));
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+
+    private static void assertSameMetrics(MetricsTracker.Snapshot expected, MetricsTracker.Snapshot actual) {
+        assertEquals(expected.getTotalOrders(), actual.getTotalOrders());
+        assertEquals(expected.getTotalRevenue(), actual.getTotalRevenue());
+        assertEquals(expected.getLiveOrders(), actual.getLiveOrders());
+        assertEquals(expected.getUntrackedOrders(), actual.getUntrackedOrders());
+        for (int region = 0; region < OrderSlots.REGION_SLOTS; region++) {
+            for (int status = 0; status < OrderSlots.STATUS_SLOTS; status++) {
+                for (int priority = 0; priority < OrderSlots.PRIORITY_SLOTS; priority++) {
+                    assertEquals(expected.getCurrent(region, status, priority),
+                            actual.getCurrent(region, status, priority));
+                }
+            }
+        }
+        assertEquals(entries(expected.getTopCustomersByOrders()), entries(actual.getTopCustomersByOrders()));
+        assertEquals(entries(expected.getTopProductsByRevenue()), entries(actual.getTopProductsByRevenue()));
+        assertEquals(expected.getDistinctCustomers().getTotal(), actual.getDistinctCustomers().getTotal());
+        assertEquals(expected.getLatency().getTotalCount(), actual.getLatency().getTotalCount());
+        assertEquals(expected.getLatency().getMaxValue(), actual.getLatency().getMaxValue());
+    }
+
+    private static List<String> entries(List<HeavyHitters.Entry> top) {
+        List<String> entries = new ArrayList<>();
+        for (HeavyHitters.Entry entry : top) {
+            entries.add(entry.getKey() + "=" + entry.getEstimate());
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,196 @@
+package com.solace.practice.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+class OrderStateStoreTest {
+
+    private static final int SHIPPED = OrderStateStore.attributes(3, 1, 2);
+    private static final int DELIVERED = OrderStateStore.attributes(4, 1, 2);
+
+    @Test
+    void putGetAndRemove() {
+        OrderStateStore store = new OrderStateStore(16);
+
+        assertEquals(OrderStateStore.ABSENT, store.put(1, 2, SHIPPED, 500));
+        assertEquals(SHIPPED, store.get(1, 2));
+        assertEquals(OrderStateStore.ABSENT, store.get(2, 1));
+        assertEquals(SHIPPED, store.put(1, 2, DELIVERED, 500));
+        assertEquals(DELIVERED, store.get(1, 2));
+        assertEquals(1, store.size());
+
+        assertEquals(DELIVERED, store.remove(1, 2));
+        assertEquals(OrderStateStore.ABSENT, store.get(1, 2));
+        assertEquals(OrderStateStore.ABSENT, store.remove(1, 2));
+        assertEquals(0, store.size());
+    }
+
+    @Test
+    void reusesTombstones() {
+        OrderStateStore store = new OrderStateStore(16);
+        for (int i = 0; i < 16; i++) {
+            store.put(i, i, SHIPPED, i);
+        }
+        store.remove(3, 3);
+
+        assertEquals(OrderStateStore.ABSENT, store.put(3, 3, DELIVERED, 3));
+        assertEquals(DELIVERED, store.get(3, 3));
+        assertEquals(16, store.size());
+    }
+
+    @Test
+    void refusesOrdersPastCapacityUntilOneIsRemoved() {
+        OrderStateStore store = new OrderStateStore(100);
+        for (int i = 0; i < 100; i++) {
+            assertEquals(OrderStateStore.ABSENT, store.put(i, -i, SHIPPED, i));
+        }
+
+        assertEquals(OrderStateStore.FULL, store.put(100, -100, SHIPPED, 100));
+        assertEquals(SHIPPED, store.put(50, -50, DELIVERED, 50), "orders already held can still change");
+
+        store.remove(7, -7);
+        assertEquals(OrderStateStore.ABSENT, store.put(100, -100, SHIPPED, 100));
+        assertEquals(OrderStateStore.FULL, store.put(101, -101, SHIPPED, 101));
+    }
+
+    @Test
+    void keepsTakingNewOrdersAfterManyMoreThanCapacityHaveComeAndGone() {
+        OrderStateStore store = new OrderStateStore(1000);
+        SplittableRandom random = new SplittableRandom(1);
+        List<UUID> held = new ArrayList<>();
+
+        for (int i = 0; i < 200_000; i++) {
+            UUID id = new UUID(random.nextLong(), random.nextLong());
+            assertEquals(OrderStateStore.ABSENT,
+                    store.put(id.getMostSignificantBits(), id.getLeastSignificantBits(), SHIPPED, i),
+                    "insert " + i + " with " + store.size() + " held");
+            held.add(id);
+            if (held.size() == 900) {
+                for (UUID gone : held.subList(0, 400)) {
+                    assertEquals(SHIPPED, store.remove(gone.getMostSignificantBits(), gone.getLeastSignificantBits()));
+                }
+                held.subList(0, 400).clear();
+            }
+        }
+
+        assertEquals(held.size(), store.size());
+        for (UUID id : held) {
+            assertEquals(SHIPPED, store.get(id.getMostSignificantBits(), id.getLeastSignificantBits()));
+        }
+    }
+
+    @Test
+    void forEachMatchesAReferenceMap() {
+        OrderStateStore store = new OrderStateStore(2000);
+        Map<UUID, Integer> reference = new HashMap<>();
+        List<UUID> keys = new ArrayList<>();
+        SplittableRandom random = new SplittableRandom(2);
+
+        for (int i = 0; i < 500_000; i++) {
+            UUID id = keys.isEmpty() || random.nextInt(3) == 0
+                    ? new UUID(random.nextLong(), random.nextLong())
+                    : keys.get(random.nextInt(keys.size()));
+            long high = id.getMostSignificantBits();
+            long low = id.getLeastSignificantBits();
+            if (random.nextInt(4) == 0) {
+                Integer previous = reference.remove(id);
+                assertEquals(previous == null ? OrderStateStore.ABSENT : previous, store.remove(high, low));
+            } else {
+                int attributes = OrderStateStore.attributes(random.nextInt(8), random.nextInt(8), random.nextInt(8));
+                int previous = store.put(high, low, attributes, high ^ attributes);
+                if (previous == OrderStateStore.FULL) {
+                    assertEquals(2000, reference.size());
+                    assertTrue(!reference.containsKey(id));
+                } else {
+                    Integer expected = reference.put(id, attributes);
+                    assertEquals(expected == null ? OrderStateStore.ABSENT : expected, previous);
+                    keys.add(id);
+                }
+            }
+            if (keys.size() > 10_000) {
+                keys.subList(0, 5000).clear();
+            }
+        }
+
+        assertEquals(reference, contents(store));
+        assertEquals(reference.size(), store.size());
+    }
+
+    @Test
+    void concurrentWritersAndAWalkerSeeConsistentOrders() throws InterruptedException {
+        int writers = 4;
+        OrderStateStore store = new OrderStateStore(20_000);
+        List<Map<UUID, Integer>> references = new ArrayList<>();
+        AtomicBoolean torn = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+
+        Thread walker = new Thread(() -> {
+            while (!done.get()) {
+                store.forEach((high, low, attributes, amount) -> {
+                    if (amount != (high ^ attributes)) {
+                        torn.set(true);
+                    }
+                });
+            }
+        });
+        walker.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            Map<UUID, Integer> reference = new HashMap<>();
+            references.add(reference);
+            SplittableRandom random = new SplittableRandom(100 + w);
+            Thread thread = new Thread(() -> {
+                List<UUID> keys = new ArrayList<>();
+                for (int i = 0; i < 300_000; i++) {
+                    UUID id = keys.isEmpty() || random.nextInt(3) == 0
+                            ? new UUID(random.nextLong(), random.nextLong())
+                            : keys.get(random.nextInt(keys.size()));
+                    long high = id.getMostSignificantBits();
+                    long low = id.getLeastSignificantBits();
+                    if (random.nextInt(3) == 0) {
+                        store.remove(high, low);
+                        reference.remove(id);
+                    } else {
+                        int attributes = OrderStateStore.attributes(random.nextInt(8), random.nextInt(8), 0);
+                        if (store.put(high, low, attributes, high ^ attributes) != OrderStateStore.FULL) {
+                            reference.put(id, attributes);
+                            keys.add(id);
+                        }
+                    }
+                    if (keys.size() > 4000) {
+                        keys.subList(0, 2000).clear();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        done.set(true);
+        walker.join();
+
+        Map<UUID, Integer> expected = new HashMap<>();
+        references.forEach(expected::putAll);
+        assertEquals(expected, contents(store));
+        assertTrue(!torn.get(), "forEach saw a half-written order");
+    }
+
+    private static Map<UUID, Integer> contents(OrderStateStore store) {
+        Map<UUID, Integer> contents = new ConcurrentHashMap<>();
+        store.forEach((high, low, attributes, amount) -> contents.put(new UUID(high, low), attributes));
+        return new HashMap<>(contents);
+    }
+}
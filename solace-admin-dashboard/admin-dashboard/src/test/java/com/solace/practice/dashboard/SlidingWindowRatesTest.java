@@ -0,0 +1,109 @@
+package com.solace.practice.dashboard;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class SlidingWindowRatesTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long START = 987_654_321L;
+    private static final long TEN_DOLLARS = FixedPoint.toUnits(new BigDecimal("10.00"));
+
+    @Test
+    void eachWindowAveragesItsOwnSeconds() {
+        SlidingWindowRates rates = new SlidingWindowRates();
+        rates.tick(START);
+        // Second s has s % 100 orders of $10, so every window has a known average
+        int seconds = 2000;
+        for (int s = 1; s <= seconds; s++) {
+            record(rates, s % 100);
+            rates.tick(START + s * SECOND);
+        }
+
+        SlidingWindowRates.Snapshot snapshot = rates.snapshot();
+
+        for (int w = 0; w < SlidingWindowRates.windowCount(); w++) {
+            int window = SlidingWindowRates.windowSeconds(w);
+            long orders = 0;
+            for (int s = seconds - window + 1; s <= seconds; s++) {
+                orders += s % 100;
+            }
+            double expected = (double) orders / window;
+            assertEquals(expected, snapshot.getOrdersPerSecond(w), 1e-9, SlidingWindowRates.label(w));
+            assertEquals(expected * 10, snapshot.getRevenuePerSecond(w), 1e-6, SlidingWindowRates.label(w));
+        }
+    }
+
+    @Test
+    void youngWindowsReportOverTheTimeSeenSoFar() {
+        SlidingWindowRates rates = new SlidingWindowRates();
+        rates.tick(START);
+        for (int s = 1; s <= 5; s++) {
+            record(rates, 20);
+            rates.tick(START + s * SECOND);
+        }
+
+        SlidingWindowRates.Snapshot snapshot = rates.snapshot();
+
+        for (int w = 0; w < SlidingWindowRates.windowCount(); w++) {
+            assertEquals(20, snapshot.getOrdersPerSecond(w), 1e-9, SlidingWindowRates.label(w));
+        }
+    }
+
+    @Test
+    void aLateTickStretchesTheWindowInsteadOfInflatingIt() {
+        SlidingWindowRates rates = new SlidingWindowRates();
+        rates.tick(START);
+        record(rates, 30);
+        rates.tick(START + SECOND);
+        record(rates, 30);
+        // The ticking thread stalled for two seconds
+        rates.tick(START + 3 * SECOND);
+
+        SlidingWindowRates.Snapshot snapshot = rates.snapshot();
+
+        assertEquals(15, snapshot.getOrdersPerSecond(0), 1e-9);
+        assertEquals(20, snapshot.getOrdersPerSecond(1), 1e-9);
+    }
+
+    @Test
+    void reportsNothingBeforeTheSecondTick() {
+        SlidingWindowRates rates = new SlidingWindowRates();
+        record(rates, 10);
+        assertEquals(0, rates.snapshot().getOrdersPerSecond(0));
+        rates.tick(START);
+        record(rates, 10);
+
+        assertEquals(0, rates.snapshot().getOrdersPerSecond(0));
+        assertEquals(0, rates.snapshot().getRevenuePerSecond(3));
+    }
+
+    @Test
+    void revenueRatesSurviveTheRunningTotalWrapping() {
+        SlidingWindowRates rates = new SlidingWindowRates();
+        rates.record(Long.MAX_VALUE - TEN_DOLLARS);
+        rates.tick(START);
+        record(rates, 3);
+        rates.tick(START + SECOND);
+
+        assertEquals(30, rates.snapshot().getRevenuePerSecond(0), 1e-6);
+    }
+
+    @Test
+    void labelsWindowsInTheLargestWholeUnit() {
+        assertEquals(4, SlidingWindowRates.windowCount());
+        assertEquals("1s", SlidingWindowRates.label(0));
+        assertEquals("10s", SlidingWindowRates.label(1));
+        assertEquals("1m", SlidingWindowRates.label(2));
+        assertEquals("15m", SlidingWindowRates.label(3));
+    }
+
+    private static void record(SlidingWindowRates rates, int orders) {
+        for (int i = 0; i < orders; i++) {
+            rates.record(TEN_DOLLARS);
+        }
+    }
+}
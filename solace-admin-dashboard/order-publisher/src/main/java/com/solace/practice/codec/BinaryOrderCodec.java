@@ -0,0 +1,240 @@
+package com.solace.practice.codec;
+
+import com.solace.practice.model.Order;
+import com.solace.practice.model.OrderDimensions;
+import com.solace.practice.model.OrderStatus;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+/**
+ * The order/v2 encoding: a fixed binary layout, big-endian.
+ *
+ * <pre>
+ *  offset  size  field
+ *       0     1  layout version (1)
+ *       1     8  orderId, most significant UUID bits
+ *       9     8  orderId, least significant UUID bits
+ *      17     1  status ordinal
+ *      18     1  region index   (see OrderDimensions)
+ *      19     1  priority index (see OrderDimensions)
+ *      20     4  quantity
+ *      24     8  totalAmount in millionths
+ *      32     8  createdAt in epoch microseconds, LocalDateTime taken as UTC
+ *      40   1+n  customerId, length byte then UTF-8
+ *     ...   1+n  productId, length byte then UTF-8
+ * </pre>
+ *
+ * A typical order is 57 bytes against about 220 as JSON. Every field
+ * is required and orderId must be a UUID; anything else is rejected with
+ * IllegalArgumentException.
+ */
+public class BinaryOrderCodec implements OrderCodec {
+
+    public static final byte LAYOUT_VERSION = 1;
+    public static final int AMOUNT_SCALE = 6;
+
+    private static final int FIXED_LENGTH = 40;
+    private static final int MAX_STRING_BYTES = 255;
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    // Publishers reuse a handful of BigDecimal instances; remembering their
+    // scaled value avoids the BigInteger that unscaledValue() allocates.
+    private static final int AMOUNT_CACHE_SIZE = 64;
+    private final BigDecimal[] cachedAmounts = new BigDecimal[AMOUNT_CACHE_SIZE];
+    private final long[] cachedMicros = new long[AMOUNT_CACHE_SIZE];
+
+    private final byte[] buffer = new byte[FIXED_LENGTH + 2 * (1 + MAX_STRING_BYTES)];
+    private int position;
+
+    @Override
+    public String topicPrefix() {
+        return "order/" + OrderCodecs.BINARY_VERSION;
+    }
+
+    @Override
+    public int encode(Order order) {
+        String orderId = require(order.getOrderId(), "orderId");
+        OrderStatus status = require(order.getStatus(), "status");
+        int region = OrderDimensions.regionIndex(order.getRegion());
+        int priority = OrderDimensions.priorityIndex(order.getPriority());
+        if (region < 0) {
+            throw new IllegalArgumentException("Unknown region: " + order.getRegion());
+        }
+        if (priority < 0) {
+            throw new IllegalArgumentException("Unknown priority: " + order.getPriority());
+        }
+        LocalDateTime createdAt = require(order.getCreatedAt(), "createdAt");
+
+        position = 0;
+        buffer[position++] = LAYOUT_VERSION;
+        writeUuid(orderId);
+        buffer[position++] = (byte) status.ordinal();
+        buffer[position++] = (byte) region;
+        buffer[position++] = (byte) priority;
+        writeInt(order.getQuantity());
+        writeLong(toMicros(require(order.getTotalAmount(), "totalAmount")));
+        writeLong(createdAt.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + createdAt.getNano() / 1_000);
+        writeString(require(order.getCustomerId(), "customerId"));
+        writeString(require(order.getProductId(), "productId"));
+        return position;
+    }
+
+    @Override
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    @Override
+    public Order decode(byte[] data, int offset, int length) {
+        if (length < FIXED_LENGTH + 2 || data[offset] != LAYOUT_VERSION) {
+            throw new IllegalArgumentException("Not a v" + LAYOUT_VERSION + " binary order");
+        }
+        int pos = offset + 1;
+        UUID orderId = new UUID(readLong(data, pos), readLong(data, pos + 8));
+        OrderStatus status = STATUSES[index(data[offset + 17], STATUSES.length, "status")];
+        String region = OrderDimensions.region(index(data[offset + 18], OrderDimensions.regionCount(), "region"));
+        String priority = OrderDimensions.priority(
+                index(data[offset + 19], OrderDimensions.priorityCount(), "priority"));
+        int quantity = readInt(data, offset + 20);
+        BigDecimal totalAmount = BigDecimal.valueOf(readLong(data, offset + 24), AMOUNT_SCALE).stripTrailingZeros();
+        if (totalAmount.scale() < 2) {
+            totalAmount = totalAmount.setScale(2);
+        }
+        long micros = readLong(data, offset + 32);
+        LocalDateTime createdAt = LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+
+        int end = offset + length;
+        pos = offset + FIXED_LENGTH;
+        int customerLength = data[pos++] & 0xFF;
+        if (pos + customerLength >= end) {
+            throw new IllegalArgumentException("Truncated binary order");
+        }
+        String customerId = new String(data, pos, customerLength, StandardCharsets.UTF_8);
+        pos += customerLength;
+        int productLength = data[pos++] & 0xFF;
+        if (pos + productLength > end) {
+            throw new IllegalArgumentException("Truncated binary order");
+        }
+        String productId = new String(data, pos, productLength, StandardCharsets.UTF_8);
+
+        return new Order(orderId.toString(), customerId, productId, quantity, totalAmount,
+                status, region, priority, createdAt);
+    }
+
+    @Override
+    public long orderKey(byte[] data, int offset, int length) {
+        if (length < 17 || data[offset] != LAYOUT_VERSION) {
+            throw new IllegalArgumentException("Not a v" + LAYOUT_VERSION + " binary order");
+        }
+        return OrderKeys.of(readLong(data, offset + 1), readLong(data, offset + 9));
+    }
+
+    // ---- encoding helpers ----
+
+    private long toMicros(BigDecimal amount) {
+        int slot = System.identityHashCode(amount) & (AMOUNT_CACHE_SIZE - 1);
+        if (cachedAmounts[slot] == amount) {
+            return cachedMicros[slot];
+        }
+        long micros;
+        try {
+            micros = amount.setScale(AMOUNT_SCALE).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException("totalAmount does not fit the binary layout: " + amount, e);
+        }
+        cachedAmounts[slot] = amount;
+        cachedMicros[slot] = micros;
+        return micros;
+    }
+
+    /** Parses the canonical 8-4-4-4-12 form without going through UUID.fromString. */
+    private void writeUuid(String id) {
+        if (id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-'
+                || id.charAt(18) != '-' || id.charAt(23) != '-') {
+            throw new IllegalArgumentException("orderId is not a UUID: " + id);
+        }
+        long msb = (hex(id, 0, 8) << 32) | (hex(id, 9, 13) << 16) | hex(id, 14, 18);
+        long lsb = (hex(id, 19, 23) << 48) | hex(id, 24, 36);
+        writeLong(msb);
+        writeLong(lsb);
+    }
+
+    private static long hex(String s, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(s.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("orderId is not a UUID: " + s);
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    private void writeString(String value) {
+        int lengthPos = position++;
+        int start = position;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= 0x80) {
+                // Rare in ids; take the slow path for the whole string
+                byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+                if (utf8.length > MAX_STRING_BYTES) {
+                    throw new IllegalArgumentException("Field longer than " + MAX_STRING_BYTES + " bytes: " + value);
+                }
+                System.arraycopy(utf8, 0, buffer, start, utf8.length);
+                position = start + utf8.length;
+                buffer[lengthPos] = (byte) utf8.length;
+                return;
+            }
+            if (i == MAX_STRING_BYTES) {
+                throw new IllegalArgumentException("Field longer than " + MAX_STRING_BYTES + " bytes: " + value);
+            }
+            buffer[position++] = (byte) c;
+        }
+        buffer[lengthPos] = (byte) (position - start);
+    }
+
+    private void writeInt(int value) {
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    private void writeLong(long value) {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    private static <T> T require(T value, String field) {
+        if (value == null) {
+            throw new IllegalArgumentException(field + " is required by the binary layout");
+        }
+        return value;
+    }
+
+    // ---- decoding helpers ----
+
+    private static int readInt(byte[] data, int pos) {
+        return ((data[pos] & 0xFF) << 24) | ((data[pos + 1] & 0xFF) << 16)
+                | ((data[pos + 2] & 0xFF) << 8) | (data[pos + 3] & 0xFF);
+    }
+
+    private static long readLong(byte[] data, int pos) {
+        return ((long) readInt(data, pos) << 32) | (readInt(data, pos + 4) & 0xFFFFFFFFL);
+    }
+
+    /** An unsigned table index, checked so that a corrupt or newer payload is rejected rather than overrunning. */
+    private static int index(byte value, int count, String field) {
+        int index = value & 0xFF;
+        if (index >= count) {
+            throw new IllegalArgumentException("Unknown " + field + " index in binary order: " + index);
+        }
+        return index;
+    }
+}
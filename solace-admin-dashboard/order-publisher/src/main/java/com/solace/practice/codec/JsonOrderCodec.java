@@ -0,0 +1,89 @@
+package com.solace.practice.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.solace.practice.model.Order;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The order/v1 encoding: JSON as written by Jackson.
+ *
+ * Encoding goes through {@link OrderJsonWriter} to avoid allocating; decoding
+ * uses Jackson.
+ */
+public class JsonOrderCodec implements OrderCodec {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule());
+
+    private static final byte[] ORDER_ID_FIELD = "\"orderId\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final OrderJsonWriter writer = new OrderJsonWriter();
+
+    @Override
+    public String topicPrefix() {
+        return "order/" + OrderCodecs.JSON_VERSION;
+    }
+
+    @Override
+    public int encode(Order order) {
+        return writer.write(order);
+    }
+
+    @Override
+    public byte[] buffer() {
+        return writer.buffer();
+    }
+
+    @Override
+    public Order decode(byte[] data, int offset, int length) {
+        try {
+            return objectMapper.readValue(data, offset, length, Order.class);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid order JSON", e);
+        }
+    }
+
+    /**
+     * Finds the orderId string by scanning for its field name, which
+     * OrderJsonWriter puts first. Anything unusual, such as an escaped id,
+     * falls back to a full decode.
+     */
+    @Override
+    public long orderKey(byte[] data, int offset, int length) {
+        int end = offset + length;
+        int pos = indexOf(data, offset, end, ORDER_ID_FIELD);
+        if (pos >= 0) {
+            pos += ORDER_ID_FIELD.length;
+            while (pos < end && (data[pos] == ':' || data[pos] == ' ' || data[pos] == '\t'
+                    || data[pos] == '\n' || data[pos] == '\r')) {
+                pos++;
+            }
+            if (pos < end && data[pos] == '"') {
+                int start = pos + 1;
+                int close = start;
+                while (close < end && data[close] != '"' && data[close] != '\\') {
+                    close++;
+                }
+                if (close < end && data[close] == '"') {
+                    return OrderKeys.of(data, start, close - start);
+                }
+            }
+        }
+        return OrderKeys.of(decode(data, offset, length).getOrderId());
+    }
+
+    private static int indexOf(byte[] data, int from, int end, byte[] target) {
+        outer:
+        for (int i = from; i <= end - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (data[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+}
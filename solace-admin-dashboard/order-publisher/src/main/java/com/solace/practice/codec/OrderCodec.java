@@ -0,0 +1,36 @@
+package com.solace.practice.codec;
+
+import com.solace.practice.model.Order;
+
+/**
+ * Turns an Order into a message payload and back.
+ *
+ * Each encoding is published under its own topic version, so a consumer
+ * can tell from the topic alone how to read a message (see {@link OrderCodecs}).
+ *
+ * Encoding writes into a buffer owned by the codec and reused on every call,
+ * so an instance must not be shared between threads.
+ */
+public interface OrderCodec {
+
+    /** Topic prefix this encoding is published under, e.g. "order/v1". */
+    String topicPrefix();
+
+    /**
+     * Encodes the order, replacing whatever the buffer held before.
+     *
+     * @return the number of bytes written, starting at offset 0 of {@link #buffer()}
+     */
+    int encode(Order order);
+
+    /** The backing array; only valid up to the length returned by the last encode. */
+    byte[] buffer();
+
+    Order decode(byte[] data, int offset, int length);
+
+    /**
+     * The {@link OrderKeys} key of the payload's orderId, read without
+     * decoding the rest of the order.
+     */
+    long orderKey(byte[] data, int offset, int length);
+}
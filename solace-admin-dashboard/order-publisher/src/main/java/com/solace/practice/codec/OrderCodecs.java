@@ -0,0 +1,44 @@
+package com.solace.practice.codec;
+
+/**
+ * Picks the codec for a topic version.
+ *
+ * <ul>
+ *   <li>order/v1 - JSON, readable by any Jackson consumer</li>
+ *   <li>order/v2 - fixed-layout binary, see {@link BinaryOrderCodec}</li>
+ * </ul>
+ */
+public final class OrderCodecs {
+
+    public static final String JSON_VERSION = "v1";
+    public static final String BINARY_VERSION = "v2";
+
+    private OrderCodecs() {}
+
+    /** A new codec for "v1" or "v2". */
+    public static OrderCodec create(String version) {
+        switch (version) {
+            case JSON_VERSION:
+                return new JsonOrderCodec();
+            case BINARY_VERSION:
+                return new BinaryOrderCodec();
+            default:
+                throw new IllegalArgumentException("Unknown order topic version: " + version);
+        }
+    }
+
+    /** A new codec for the version in a topic such as order/v2/EU/PAID/HIGH. */
+    public static OrderCodec forTopic(String topic) {
+        return create(versionOf(topic));
+    }
+
+    /** The version level of an order topic, e.g. "v1" for order/v1/EU/PAID/HIGH. */
+    public static String versionOf(String topic) {
+        int start = topic.indexOf('/') + 1;
+        int end = topic.indexOf('/', start);
+        if (start == 0 || end < 0) {
+            throw new IllegalArgumentException("Not an order topic: " + topic);
+        }
+        return topic.substring(start, end);
+    }
+}
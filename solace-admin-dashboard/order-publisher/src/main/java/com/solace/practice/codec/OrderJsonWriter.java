@@ -0,0 +1,224 @@
+package com.solace.practice.codec;
+
+import com.solace.practice.model.Order;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+/**
+ * Writes an Order as JSON straight into a reusable byte buffer.
+ *
+ * The output is the same document the publisher's Jackson ObjectMapper
+ * (with JavaTimeModule) produces, so consumers can keep reading it with
+ * Jackson: fields in declaration order, totalAmount as a JSON number and
+ * createdAt as a [year, month, day, hour, minute, second, nanos] array.
+ *
+ * Once the buffer has grown to fit the largest order, writing allocates
+ * nothing. Strings are encoded char by char, and BigDecimal caches its own
+ * toString() so a shared amount instance is only formatted once.
+ *
+ * Not thread-safe; give each publishing thread its own writer.
+ */
+public final class OrderJsonWriter {
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes();
+    private static final byte[] NULL = "null".getBytes();
+    private static final byte[] SHORT_ESCAPES = new byte[0x20];
+
+    static {
+        SHORT_ESCAPES['\b'] = 'b';
+        SHORT_ESCAPES['\t'] = 't';
+        SHORT_ESCAPES['\n'] = 'n';
+        SHORT_ESCAPES['\f'] = 'f';
+        SHORT_ESCAPES['\r'] = 'r';
+    }
+
+    private static final byte[] ORDER_ID = "{\"orderId\":".getBytes();
+    private static final byte[] CUSTOMER_ID = ",\"customerId\":".getBytes();
+    private static final byte[] PRODUCT_ID = ",\"productId\":".getBytes();
+    private static final byte[] QUANTITY = ",\"quantity\":".getBytes();
+    private static final byte[] TOTAL_AMOUNT = ",\"totalAmount\":".getBytes();
+    private static final byte[] STATUS = ",\"status\":".getBytes();
+    private static final byte[] REGION = ",\"region\":".getBytes();
+    private static final byte[] PRIORITY = ",\"priority\":".getBytes();
+    private static final byte[] CREATED_AT = ",\"createdAt\":".getBytes();
+
+    private byte[] buffer;
+    private int position;
+
+    public OrderJsonWriter() {
+        this(512);
+    }
+
+    public OrderJsonWriter(int initialCapacity) {
+        this.buffer = new byte[initialCapacity];
+    }
+
+    /**
+     * Serializes the order, replacing whatever the buffer held before.
+     *
+     * @return the number of bytes written, starting at offset 0 of {@link #buffer()}
+     */
+    public int write(Order order) {
+        position = 0;
+        writeRaw(ORDER_ID);
+        writeString(order.getOrderId());
+        writeRaw(CUSTOMER_ID);
+        writeString(order.getCustomerId());
+        writeRaw(PRODUCT_ID);
+        writeString(order.getProductId());
+        writeRaw(QUANTITY);
+        writeLong(order.getQuantity());
+        writeRaw(TOTAL_AMOUNT);
+        writeDecimal(order.getTotalAmount());
+        writeRaw(STATUS);
+        writeString(order.getStatus() == null ? null : order.getStatus().name());
+        writeRaw(REGION);
+        writeString(order.getRegion());
+        writeRaw(PRIORITY);
+        writeString(order.getPriority());
+        writeRaw(CREATED_AT);
+        writeDateTime(order.getCreatedAt());
+        writeByte('}');
+        return position;
+    }
+
+    /** The backing array; only valid up to the length returned by the last write. */
+    public byte[] buffer() {
+        return buffer;
+    }
+
+    private void writeDecimal(BigDecimal value) {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        // Plain ASCII digits, so no escaping needed
+        String text = value.toString();
+        ensureCapacity(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            buffer[position++] = (byte) text.charAt(i);
+        }
+    }
+
+    // Matches Jackson's LocalDateTimeSerializer with WRITE_DATES_AS_TIMESTAMPS
+    private void writeDateTime(LocalDateTime value) {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        writeByte('[');
+        writeLong(value.getYear());
+        writeByte(',');
+        writeLong(value.getMonthValue());
+        writeByte(',');
+        writeLong(value.getDayOfMonth());
+        writeByte(',');
+        writeLong(value.getHour());
+        writeByte(',');
+        writeLong(value.getMinute());
+        int seconds = value.getSecond();
+        int nanos = value.getNano();
+        if (seconds > 0 || nanos > 0) {
+            writeByte(',');
+            writeLong(seconds);
+            if (nanos > 0) {
+                writeByte(',');
+                writeLong(nanos);
+            }
+        }
+        writeByte(']');
+    }
+
+    private void writeString(String value) {
+        if (value == null) {
+            writeRaw(NULL);
+            return;
+        }
+        // Worst case is 6 bytes per char (\\u00XX escapes)
+        ensureCapacity(value.length() * 6 + 2);
+        byte[] buf = buffer;
+        int pos = position;
+        buf[pos++] = '"';
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                if (c == '"' || c == '\\') {
+                    buf[pos++] = '\\';
+                    buf[pos++] = (byte) c;
+                } else if (c < 0x20) {
+                    // Jackson uses the short escapes where JSON has them
+                    byte shortEscape = SHORT_ESCAPES[c];
+                    if (shortEscape != 0) {
+                        buf[pos++] = '\\';
+                        buf[pos++] = shortEscape;
+                    } else {
+                        pos = writeUnicodeEscape(buf, pos, c);
+                    }
+                } else {
+                    buf[pos++] = (byte) c;
+                }
+            } else if (c < 0x800) {
+                buf[pos++] = (byte) (0xC0 | (c >> 6));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                // Jackson writes characters outside the BMP as an escaped surrogate pair
+                pos = writeUnicodeEscape(buf, pos, c);
+                pos = writeUnicodeEscape(buf, pos, value.charAt(++i));
+            } else {
+                buf[pos++] = (byte) (0xE0 | (c >> 12));
+                buf[pos++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buf[pos++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        buf[pos++] = '"';
+        position = pos;
+    }
+
+    private static int writeUnicodeEscape(byte[] buf, int pos, char c) {
+        buf[pos++] = '\\';
+        buf[pos++] = 'u';
+        buf[pos++] = HEX[c >> 12];
+        buf[pos++] = HEX[(c >> 8) & 0xF];
+        buf[pos++] = HEX[(c >> 4) & 0xF];
+        buf[pos++] = HEX[c & 0xF];
+        return pos;
+    }
+
+    private void writeLong(long value) {
+        ensureCapacity(20);
+        if (value < 0) {
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int start = position;
+        do {
+            buffer[position++] = (byte) ('0' + (value % 10));
+            value /= 10;
+        } while (value != 0);
+        // Digits came out least significant first
+        for (int i = start, j = position - 1; i < j; i++, j--) {
+            byte tmp = buffer[i];
+            buffer[i] = buffer[j];
+            buffer[j] = tmp;
+        }
+    }
+
+    private void writeRaw(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    private void writeByte(char c) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) c;
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+        }
+    }
+}
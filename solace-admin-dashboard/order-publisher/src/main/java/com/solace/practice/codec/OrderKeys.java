@@ -0,0 +1,110 @@
+package com.solace.practice.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit keys for order ids, used to route all events of one order to the
+ * same place (a consumer worker, a shard) without decoding the whole order.
+ *
+ * A UUID order id gets the same key whether it was read as two longs from a
+ * binary payload or as text from JSON. Any other id is hashed as bytes.
+ */
+public final class OrderKeys {
+
+    private OrderKeys() {}
+
+    public static long of(long mostSigBits, long leastSigBits) {
+        // Random UUIDs are already well mixed; this only folds them together
+        return mostSigBits ^ leastSigBits;
+    }
+
+    /** Key for an order id given as UTF-8 text. */
+    public static long of(byte[] utf8, int offset, int length) {
+        if (length == 36 && utf8[offset + 8] == '-' && utf8[offset + 13] == '-'
+                && utf8[offset + 18] == '-' && utf8[offset + 23] == '-') {
+            long a = hex(utf8, offset, offset + 8);
+            long b = hex(utf8, offset + 9, offset + 13);
+            long c = hex(utf8, offset + 14, offset + 18);
+            long d = hex(utf8, offset + 19, offset + 23);
+            long e = hex(utf8, offset + 24, offset + 36);
+            if ((a | b | c | d | e) >= 0) {
+                return of((a << 32) | (b << 16) | c, (d << 48) | e);
+            }
+        }
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for (int i = offset; i < offset + length; i++) {
+            hash = (hash ^ (utf8[i] & 0xFF)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    public static long of(String orderId) {
+        if (orderId == null) {
+            return 0;
+        }
+        byte[] utf8 = orderId.getBytes(StandardCharsets.UTF_8);
+        return of(utf8, 0, utf8.length);
+    }
+
+    /**
+     * High 64 bits of a UUID order id. Together with
+     * {@link #leastSigBits(String)} this identifies the order exactly, without
+     * allocating as UUID.fromString does. Other ids get two independent
+     * 64-bit hashes instead.
+     */
+    public static long mostSigBits(String orderId) {
+        if (isUuid(orderId)) {
+            return (hex(orderId, 0, 8) << 32) | (hex(orderId, 9, 13) << 16) | hex(orderId, 14, 18);
+        }
+        return fnv(orderId, 0xcbf29ce484222325L);
+    }
+
+    public static long leastSigBits(String orderId) {
+        if (isUuid(orderId)) {
+            return (hex(orderId, 19, 23) << 48) | hex(orderId, 24, 36);
+        }
+        return fnv(orderId, 0x84222325cbf29ce4L);
+    }
+
+    private static boolean isUuid(String id) {
+        if (id.length() != 36 || id.charAt(8) != '-' || id.charAt(13) != '-'
+                || id.charAt(18) != '-' || id.charAt(23) != '-') {
+            return false;
+        }
+        return (hex(id, 0, 8) | hex(id, 9, 13) | hex(id, 14, 18) | hex(id, 19, 23) | hex(id, 24, 36)) >= 0;
+    }
+
+    private static long fnv(String id, long basis) {
+        long hash = basis;
+        for (int i = 0; i < id.length(); i++) {
+            hash = (hash ^ id.charAt(i)) * 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long hex(String text, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(text.charAt(i), 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+
+    /** The hex digits as a number, or -1 if any is not a hex digit. */
+    private static long hex(byte[] data, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = Character.digit(data[i], 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+}
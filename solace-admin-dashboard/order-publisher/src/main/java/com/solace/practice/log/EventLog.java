@@ -0,0 +1,185 @@
+package com.solace.practice.log;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A low-overhead event log for hot callback threads.
+ *
+ * System.out.println is synchronized and blocks on the console, which is
+ * far too slow to call for every broker ack. Here the calling thread only
+ * decides whether the event is sampled, claims a slot in a fixed ring with
+ * one CAS and stores a few references. A background thread formats and
+ * prints.
+ *
+ * Nothing is ever waited on: events that are sampled out, or that find the
+ * ring full, are only counted, and the counts are printed periodically and
+ * on close.
+ */
+public class EventLog implements AutoCloseable {
+
+    private static final long SUMMARY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    /** A kind of event with its own sampling rate and counters. */
+    public static final class Category {
+        private final String name;
+        private final long sampleEvery;
+        private final AtomicLong seen = new AtomicLong();
+        private final LongAdder sampledOut = new LongAdder();
+
+        private Category(String name, long sampleEvery) {
+            this.name = name;
+            this.sampleEvery = sampleEvery;
+        }
+
+        private boolean sample() {
+            if (sampleEvery == 1 || seen.getAndIncrement() % sampleEvery == 0) {
+                return true;
+            }
+            sampledOut.increment();
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        Category category;
+        String text;
+        Object detail;
+    }
+
+    private final Entry[] entries;
+    private final int mask;
+    // Slot i holds a readable event for sequence s once published[i] == s + 1
+    private final AtomicLongArray published;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    private final LongAdder dropped = new LongAdder();
+    private final Category[] categories = new Category[16];
+    private int categoryCount;
+
+    private final Thread drainer;
+    private volatile boolean running = true;
+
+    /** @param capacity ring size, rounded up to a power of two */
+    public EventLog(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.entries = new Entry[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = new Entry();
+        }
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+
+        this.drainer = new Thread(this::drainLoop, "event-log");
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    /** Registers a category that prints one event in every {@code sampleEvery}. */
+    public synchronized Category category(String name, long sampleEvery) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sampleEvery must be at least 1: " + sampleEvery);
+        }
+        if (categoryCount == categories.length) {
+            throw new IllegalStateException("Too many event log categories");
+        }
+        Category category = new Category(name, sampleEvery);
+        categories[categoryCount++] = category;
+        return category;
+    }
+
+    /**
+     * Logs {@code text + detail} if the category samples this event. The
+     * detail is only turned into a string on the background thread.
+     */
+    public void log(Category category, String text, Object detail) {
+        if (!category.sample()) {
+            return;
+        }
+        long sequence;
+        do {
+            sequence = tail.get();
+            if (sequence - head >= entries.length) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) sequence & mask;
+        Entry entry = entries[index];
+        entry.category = category;
+        entry.text = text;
+        entry.detail = detail;
+        published.lazySet(index, sequence + 1);
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(drainer);
+        try {
+            drainer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        printSummary();
+    }
+
+    private void drainLoop() {
+        long nextSummary = System.nanoTime() + SUMMARY_INTERVAL_NANOS;
+        while (running) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+            if (System.nanoTime() >= nextSummary) {
+                printSummary();
+                nextSummary += SUMMARY_INTERVAL_NANOS;
+            }
+        }
+        drain();
+    }
+
+    private int drain() {
+        int printed = 0;
+        long sequence = head;
+        while (true) {
+            int index = (int) sequence & mask;
+            if (published.get(index) != sequence + 1) {
+                break;
+            }
+            Entry entry = entries[index];
+            System.out.println("  [" + entry.category.name + "] " + entry.text
+                    + (entry.detail == null ? "" : entry.detail));
+            entry.category = null;
+            entry.text = null;
+            entry.detail = null;
+            sequence++;
+            head = sequence;
+            printed++;
+        }
+        return printed;
+    }
+
+    private synchronized void printSummary() {
+        StringBuilder summary = new StringBuilder("  [event-log]");
+        boolean any = false;
+        for (int i = 0; i < categoryCount; i++) {
+            long skipped = categories[i].sampledOut.sum();
+            if (skipped > 0) {
+                summary.append(String.format(" %s: %,d not printed;", categories[i].name, skipped));
+                any = true;
+            }
+        }
+        long lost = dropped.sum();
+        if (lost > 0) {
+            summary.append(String.format(" %,d dropped (ring full)", lost));
+            any = true;
+        }
+        if (any) {
+            System.out.println(summary);
+        }
+    }
+}
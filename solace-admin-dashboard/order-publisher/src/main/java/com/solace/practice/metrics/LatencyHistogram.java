@@ -0,0 +1,178 @@
+package com.solace.practice.metrics;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size latency histogram in the style of HdrHistogram.
+ *
+ * Values below 128 get a bucket each. Above that, every power of two is
+ * split into 64 linear buckets, so any recorded value is reported to within
+ * 1/64 (about 1.6%) whatever its magnitude. Values up to about 2^47
+ * (over a day in nanoseconds) are tracked; larger ones land in the top bucket.
+ *
+ * Recording is one atomic increment and never allocates, so any number of
+ * threads can record concurrently. Readers take a {@link Snapshot}; the
+ * difference of two snapshots gives the histogram of one interval.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int HALF_COUNT = SUB_BUCKET_COUNT / 2;
+    private static final int MAX_SHIFT = 40;
+    private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + MAX_SHIFT * HALF_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    public void recordValue(long value) {
+        counts.incrementAndGet(indexFor(Math.max(0, value)));
+    }
+
+    /** Adds a snapshot's counts, e.g. one saved by {@link Snapshot#writeTo} before a restart. */
+    public void add(Snapshot snapshot) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (snapshot.counts[i] != 0) {
+                counts.addAndGet(i, snapshot.counts[i]);
+            }
+        }
+    }
+
+    public Snapshot snapshot() {
+        long[] copy = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            copy[i] = counts.get(i);
+        }
+        return new Snapshot(copy);
+    }
+
+    static int indexFor(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS bits of the value
+        int shift = (63 - Long.numberOfLeadingZeros(value)) - (SUB_BUCKET_BITS - 1);
+        if (shift > MAX_SHIFT) {
+            return BUCKET_COUNT - 1;
+        }
+        return SUB_BUCKET_COUNT + (shift - 1) * HALF_COUNT + (int) ((value >>> shift) - HALF_COUNT);
+    }
+
+    /** Largest value that maps to the bucket, as HdrHistogram reports it. */
+    static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / HALF_COUNT + 1;
+        long subBucket = offset % HALF_COUNT + HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+
+    /** An immutable copy of the bucket counts at one point in time. */
+    public static final class Snapshot {
+
+        private final long[] counts;
+        private final long totalCount;
+
+        private Snapshot(long[] counts) {
+            this.counts = counts;
+            long total = 0;
+            for (long count : counts) {
+                total += count;
+            }
+            this.totalCount = total;
+        }
+
+        /**
+         * Reads a snapshot written by {@link #writeTo}.
+         *
+         * @throws IllegalArgumentException if the data is not a snapshot
+         */
+        public static Snapshot readFrom(ByteBuffer in) {
+            long[] counts = new long[BUCKET_COUNT];
+            int used = in.getInt();
+            for (int i = 0; i < used; i++) {
+                int index = in.getShort() & 0xFFFF;
+                if (index >= BUCKET_COUNT) {
+                    throw new IllegalArgumentException("Bucket " + index + " out of range");
+                }
+                counts[index] = in.getLong();
+            }
+            return new Snapshot(counts);
+        }
+
+        /** Writes the non-empty buckets as (index, count) pairs; most histograms use only a few. */
+        public void writeTo(DataOutput out) throws IOException {
+            int used = 0;
+            for (long count : counts) {
+                if (count != 0) {
+                    used++;
+                }
+            }
+            out.writeInt(used);
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] != 0) {
+                    out.writeShort(i);
+                    out.writeLong(counts[i]);
+                }
+            }
+        }
+
+        public long getTotalCount() {
+            return totalCount;
+        }
+
+        /** The histogram of everything recorded after {@code earlier} was taken. */
+        public Snapshot minus(Snapshot earlier) {
+            long[] diff = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                diff[i] = counts[i] - earlier.counts[i];
+            }
+            return new Snapshot(diff);
+        }
+
+        /** Adds another histogram's counts, e.g. to combine per-thread or per-region histograms. */
+        public Snapshot plus(Snapshot other) {
+            long[] sum = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                sum[i] = counts[i] + other.counts[i];
+            }
+            return new Snapshot(sum);
+        }
+
+        /** Value at or below which {@code percentile}% of recorded values fall; 0 if empty. */
+        public long getValueAtPercentile(double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+            long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * totalCount));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return highestValueAt(i);
+                }
+            }
+            return getMaxValue();
+        }
+
+        public long getMaxValue() {
+            for (int i = counts.length - 1; i >= 0; i--) {
+                if (counts[i] != 0) {
+                    return highestValueAt(i);
+                }
+            }
+            return 0;
+        }
+
+        /** One-line summary with values converted from nanoseconds to microseconds. */
+        public String formatMicros() {
+            return String.format("p50=%,.1fus p99=%,.1fus p99.9=%,.1fus max=%,.1fus (n=%,d)",
+                    getValueAtPercentile(50) / 1e3, getValueAtPercentile(99) / 1e3,
+                    getValueAtPercentile(99.9) / 1e3, getMaxValue() / 1e3, totalCount);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.solace.practice.model;
+
+/**
+ * The fixed set of regions and priorities an Order can carry.
+ *
+ * Kept in one place so the topic hierarchy and the binary codec agree on
+ * what index stands for which value.
+ */
+public final class OrderDimensions {
+
+    private static final String[] REGIONS = {"US-EAST", "US-WEST", "EU", "ASIA"};
+    private static final String[] PRIORITIES = {"NORMAL", "HIGH", "URGENT"};
+
+    private OrderDimensions() {}
+
+    public static String[] regions() { return REGIONS.clone(); }
+
+    public static String[] priorities() { return PRIORITIES.clone(); }
+
+    public static int regionCount() { return REGIONS.length; }
+
+    public static int priorityCount() { return PRIORITIES.length; }
+
+    public static String region(int index) { return REGIONS[index]; }
+
+    public static String priority(int index) { return PRIORITIES[index]; }
+
+    /** Index of the region, or -1 if it is not one of the known regions. */
+    public static int regionIndex(String region) { return indexOf(REGIONS, region); }
+
+    /** Index of the priority, or -1 if it is not one of the known priorities. */
+    public static int priorityIndex(String priority) { return indexOf(PRIORITIES, priority); }
+
+    // A handful of entries: a scan beats hashing, and equals() short-circuits
+    // when callers pass the same constant strings.
+    private static int indexOf(String[] values, String value) {
+        for (int i = 0; i < values.length; i++) {
+            if (values[i].equals(value)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.transport.SendTimestamps;
+import com.solace.practice.transport.TransportPublisher;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.DeliveryMode;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.JCSMPSendMultipleEntry;
+import com.solacesystems.jcsmp.XMLMessage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Groups messages and hands them to {@link TransportPublisher#sendMultiple}
+ * so one write to the socket carries a whole batch.
+ *
+ * A batch goes out when it holds {@code batchSize} messages or when its
+ * oldest message has waited {@code lingerMicros}, whichever comes first.
+ * The linger check runs on a background timer, so a trickle of traffic is
+ * never held back longer than the linger time.
+ *
+ * Payloads passed to {@link #send(byte[], int, Destination)} are copied into
+ * DIRECT messages owned by the batch entries. {@link #send(XMLMessage, Destination)}
+ * batches a message the caller owns instead, which is how the
+ * {@link GuaranteedPublisher} keeps PERSISTENT messages alive until acked.
+ *
+ * Send failures are not thrown to the caller, since they may belong to
+ * messages added earlier. Each message that did not go out is passed to the
+ * {@link FailureHandler} instead.
+ */
+public class BatchingSender implements MessageSender, AutoCloseable {
+
+    /** JCSMP accepts at most 50 messages per sendMultiple call. */
+    public static final int MAX_BATCH_SIZE = 50;
+
+    /** Told about every message that could not be handed to the API. */
+    @FunctionalInterface
+    public interface FailureHandler {
+        void onUnsent(XMLMessage message, JCSMPException cause);
+    }
+
+    private final TransportPublisher producer;
+    private final FailureHandler failureHandler;
+    private final JCSMPSendMultipleEntry[] entries;
+    private final BytesXMLMessage[] ownedMessages;
+    private final long lingerNanos;
+    private final ScheduledExecutorService lingerTimer;
+
+    // Guarded by this
+    private int size;
+    private long oldestNanos;
+
+    public BatchingSender(TransportPublisher producer, int batchSize, long lingerMicros,
+                          FailureHandler failureHandler) {
+        if (batchSize < 1 || batchSize > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("batchSize must be between 1 and " + MAX_BATCH_SIZE + ": " + batchSize);
+        }
+        if (lingerMicros < 1) {
+            throw new IllegalArgumentException("lingerMicros must be positive: " + lingerMicros);
+        }
+        this.producer = producer;
+        this.failureHandler = failureHandler;
+        this.lingerNanos = TimeUnit.MICROSECONDS.toNanos(lingerMicros);
+
+        // Entries and their messages are reused for every batch
+        this.entries = new JCSMPSendMultipleEntry[batchSize];
+        this.ownedMessages = new BytesXMLMessage[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            entries[i] = JCSMPFactory.onlyInstance().createSendMultipleEntry(null, null);
+            ownedMessages[i] = JCSMPFactory.onlyInstance().createMessage(BytesXMLMessage.class);
+            ownedMessages[i].setDeliveryMode(DeliveryMode.DIRECT);
+        }
+
+        this.lingerTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "batch-linger");
+            t.setDaemon(true);
+            return t;
+        });
+        lingerTimer.scheduleAtFixedRate(this::flushIfExpired, lingerMicros, lingerMicros, TimeUnit.MICROSECONDS);
+    }
+
+    /** Copies the payload into the next entry's own DIRECT message. */
+    @Override
+    public synchronized void send(byte[] payload, int length, Destination destination) {
+        BytesXMLMessage message = ownedMessages[size];
+        message.writeAttachment(payload, 0, length);
+        SendTimestamps.stamp(message, SendTimestamps.now());
+        send(message, destination);
+    }
+
+    /** Adds a message the caller owns; it must stay untouched until the batch is flushed. */
+    public synchronized void send(XMLMessage message, Destination destination) {
+        if (size == 0) {
+            oldestNanos = System.nanoTime();
+        }
+        entries[size].setMessage(message).setDestination(destination);
+        size++;
+        if (size == entries.length) {
+            flush();
+        }
+    }
+
+    /** Sends whatever is buffered now. */
+    public synchronized void flush() {
+        int sent = 0;
+        try {
+            while (sent < size) {
+                sent += producer.sendMultiple(entries, sent, size - sent);
+            }
+        } catch (JCSMPException e) {
+            for (int i = sent; i < size; i++) {
+                failureHandler.onUnsent(entries[i].getMessage(), e);
+            }
+        } finally {
+            for (int i = 0; i < size; i++) {
+                entries[i].setMessage(null).setDestination(null);
+            }
+            size = 0;
+        }
+    }
+
+    @Override
+    public void close() {
+        lingerTimer.shutdownNow();
+        flush();
+    }
+
+    private synchronized void flushIfExpired() {
+        if (size > 0 && System.nanoTime() - oldestNanos >= lingerNanos) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.transport.SendTimestamps;
+import com.solace.practice.transport.TransportPublisher;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.DeliveryMode;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+
+/**
+ * Sends DIRECT messages one at a time through a single reused message.
+ *
+ * A DIRECT message is encoded onto the wire before send() returns, so the
+ * same message object can carry the next payload. Not thread-safe; each
+ * publishing thread needs its own sender.
+ *
+ * Once warmed up, a send allocates nothing: the payload is copied into the
+ * reused message and the send time into its reused user data. That covers
+ * serialization with OrderJsonWriter and sending, not making the order:
+ * OrderGenerator.next() still builds an Order, a UUID string and a
+ * LocalDateTime for each one.
+ */
+public class DirectSender implements MessageSender {
+
+    private final TransportPublisher producer;
+    private final BytesXMLMessage message;
+
+    public DirectSender(TransportPublisher producer) {
+        this.producer = producer;
+        this.message = JCSMPFactory.onlyInstance().createMessage(BytesXMLMessage.class);
+        message.setDeliveryMode(DeliveryMode.DIRECT);
+    }
+
+    @Override
+    public void send(byte[] payload, int length, Destination destination) throws JCSMPException {
+        message.writeAttachment(payload, 0, length);
+        SendTimestamps.stamp(message, SendTimestamps.now());
+        producer.send(message, destination);
+    }
+}
@@ -0,0 +1,238 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.transport.SendTimestamps;
+import com.solace.practice.transport.Transport;
+import com.solace.practice.transport.TransportPublisher;
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.DeliveryMode;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.JCSMPStreamingPublishCorrelatingEventHandler;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Asynchronous guaranteed (PERSISTENT) publishing with a bounded in-flight window.
+ *
+ * Every send takes a slot from a fixed pool. Each slot owns a reusable
+ * PERSISTENT message whose correlation key is the slot itself. The broker's acknowledgement hands the key back
+ * in {@link #responseReceivedEx(Object)}, which frees the slot; no lookup map
+ * is needed. The publishing thread only waits when every slot is in flight.
+ *
+ * A rejected message is not resent from the JCSMP callback thread (sending
+ * from there can deadlock the API). It is queued and resent by the publishing
+ * thread on its next call, up to {@code maxRetries} times, after which it is
+ * reported to the {@link Listener} as failed.
+ *
+ * With a batch size above one, sends go through a {@link BatchingSender};
+ * messages a batch could not hand over are treated like broker rejections.
+ */
+public class GuaranteedPublisher implements MessageSender, JCSMPStreamingPublishCorrelatingEventHandler {
+
+    /** Receives the final outcome of each published message. */
+    public interface Listener {
+        /** @param latencyNanos time from the first send to the broker's acknowledgement */
+        void onAcknowledged(Destination destination, long latencyNanos);
+
+        void onFailed(Destination destination, JCSMPException cause);
+    }
+
+    /** One in-flight message; doubles as its correlation key. */
+    private static final class InFlight {
+        final BytesXMLMessage message;
+        Destination destination;
+        long firstSentNanos;
+        int attempts;
+        JCSMPException lastError;
+
+        InFlight() {
+            message = JCSMPFactory.onlyInstance().createMessage(BytesXMLMessage.class);
+            message.setDeliveryMode(DeliveryMode.PERSISTENT);
+            message.setCorrelationKey(this);
+        }
+    }
+
+    private final int windowSize;
+    private final int maxRetries;
+    private final Listener listener;
+    private final ArrayBlockingQueue<InFlight> freeSlots;
+    private final Queue<InFlight> retries = new ConcurrentLinkedQueue<>();
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final TransportPublisher producer;
+    private final BatchingSender batcher;
+
+    public GuaranteedPublisher(Transport session, int windowSize, int maxRetries, Listener listener)
+            throws JCSMPException {
+        this(session, windowSize, maxRetries, 1, 0, listener);
+    }
+
+    public GuaranteedPublisher(Transport session, int windowSize, int maxRetries,
+                               int batchSize, long lingerMicros, Listener listener) throws JCSMPException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("windowSize must be at least 1: " + windowSize);
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries must not be negative: " + maxRetries);
+        }
+        this.windowSize = windowSize;
+        this.maxRetries = maxRetries;
+        this.listener = listener;
+        this.freeSlots = new ArrayBlockingQueue<>(windowSize);
+        for (int i = 0; i < windowSize; i++) {
+            freeSlots.add(new InFlight());
+        }
+        this.producer = session.createPublisher(this);
+        if (batchSize > 1) {
+            this.batcher = new BatchingSender(producer, batchSize, lingerMicros,
+                    (message, cause) -> handleErrorEx(message.getCorrelationKey(), cause, System.currentTimeMillis()));
+        } else {
+            this.batcher = null;
+        }
+    }
+
+    /**
+     * Sends the payload as a PERSISTENT message. Returns as soon as the
+     * message is handed to the API; blocks only while the in-flight window
+     * is full.
+     */
+    @Override
+    public void send(byte[] payload, int length, Destination destination) throws JCSMPException {
+        InFlight slot = acquireSlot();
+        slot.message.writeAttachment(payload, 0, length);
+        // Retries keep the first send time, so latency covers them too
+        SendTimestamps.stamp(slot.message, SendTimestamps.now());
+        slot.destination = destination;
+        slot.attempts = 0;
+        slot.firstSentNanos = System.nanoTime();
+        try {
+            send(slot);
+        } catch (JCSMPException | RuntimeException e) {
+            // Never handed to the broker, so no callback will free the slot
+            release(slot);
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until every in-flight message has been acknowledged or has
+     * failed. Returns false if the timeout elapsed first.
+     */
+    public boolean flush(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (freeSlots.size() < windowSize) {
+            resendFailed();
+            if (batcher != null) {
+                batcher.flush();
+            }
+            if (System.nanoTime() >= deadline) {
+                return false;
+            }
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+        return true;
+    }
+
+    public void close() {
+        if (batcher != null) {
+            batcher.close();
+        }
+        producer.close();
+    }
+
+    public int getInFlight() { return windowSize - freeSlots.size(); }
+
+    public long getAcknowledged() { return acknowledged.sum(); }
+
+    public long getRetried() { return retried.sum(); }
+
+    public long getFailed() { return failed.sum(); }
+
+    // ---- JCSMP callbacks (run on the API's I/O thread, or inside send() on a loopback transport) ----
+
+    @Override
+    public void responseReceivedEx(Object key) {
+        // The key is the slot, which carries the send timestamp
+        InFlight slot = (InFlight) key;
+        long latencyNanos = System.nanoTime() - slot.firstSentNanos;
+        Destination destination = slot.destination;
+        release(slot);
+        acknowledged.increment();
+        listener.onAcknowledged(destination, latencyNanos);
+    }
+
+    @Override
+    public void handleErrorEx(Object key, JCSMPException cause, long timestamp) {
+        if (!(key instanceof InFlight)) {
+            // Session-level error not tied to a message we sent
+            listener.onFailed(null, cause);
+            return;
+        }
+        InFlight slot = (InFlight) key;
+        slot.lastError = cause;
+        if (slot.attempts <= maxRetries) {
+            retries.add(slot);
+        } else {
+            fail(slot);
+        }
+    }
+
+    // ---- internals ----
+
+    private InFlight acquireSlot() throws JCSMPException {
+        InFlight slot = freeSlots.poll();
+        while (slot == null) {
+            // Window is full: the slots we are waiting for may be queued for resend
+            resendFailed();
+            try {
+                slot = freeSlots.poll(1, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JCSMPException("Interrupted waiting for a publish window slot");
+            }
+        }
+        resendFailed();
+        return slot;
+    }
+
+    private void resendFailed() {
+        InFlight slot;
+        while ((slot = retries.poll()) != null) {
+            retried.increment();
+            try {
+                send(slot);
+            } catch (JCSMPException e) {
+                slot.lastError = e;
+                fail(slot);
+            }
+        }
+    }
+
+    private void send(InFlight slot) throws JCSMPException {
+        slot.attempts++;
+        if (batcher != null) {
+            batcher.send(slot.message, slot.destination);
+        } else {
+            producer.send(slot.message, slot.destination);
+        }
+    }
+
+    private void fail(InFlight slot) {
+        Destination destination = slot.destination;
+        JCSMPException cause = slot.lastError;
+        release(slot);
+        failed.increment();
+        listener.onFailed(destination, cause);
+    }
+
+    private void release(InFlight slot) {
+        slot.destination = null;
+        slot.lastError = null;
+        freeSlots.offer(slot);
+    }
+}
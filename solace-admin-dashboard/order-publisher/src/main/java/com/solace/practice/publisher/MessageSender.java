@@ -0,0 +1,18 @@
+package com.solace.practice.publisher;
+
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+
+/**
+ * Where the load loop hands each serialized order. Lets the same loop drive
+ * a plain producer (DIRECT), a {@link BatchingSender} or the windowed
+ * {@link GuaranteedPublisher}.
+ *
+ * Implementations own and reuse their message objects, copying the payload
+ * in before returning, so the caller may overwrite {@code payload} straight
+ * away. Each message is stamped with its send time (see SendTimestamps).
+ */
+@FunctionalInterface
+public interface MessageSender {
+    void send(byte[] payload, int length, Destination destination) throws JCSMPException;
+}
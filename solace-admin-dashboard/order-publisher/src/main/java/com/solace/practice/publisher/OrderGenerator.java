@@ -0,0 +1,83 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.model.Order;
+import com.solace.practice.model.OrderDimensions;
+import com.solace.practice.model.OrderStatus;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Produces random orders for one publishing thread.
+ *
+ * Each generator owns a SplittableRandom, so threads never contend on a
+ * shared seed. Generators made with {@link #split(long, int)} from the same
+ * master seed produce the same orders every run (apart from createdAt).
+ */
+public class OrderGenerator {
+
+    private static final String[] PRODUCTS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Headphones"};
+    private static final double[] PRICES = {1299.99, 24.99, 79.99, 349.99, 149.99};
+    private static final int MAX_QUANTITY = 5;
+    private static final BigDecimal[][] AMOUNTS = totalAmounts();
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final SplittableRandom random;
+
+    public OrderGenerator(SplittableRandom random) {
+        this.random = random;
+    }
+
+    /**
+     * One generator per worker, each with its own stream split from the
+     * master seed. Splitting happens here, in order, so the same seed always
+     * gives worker N the same stream.
+     */
+    public static OrderGenerator[] split(long masterSeed, int workers) {
+        SplittableRandom master = new SplittableRandom(masterSeed);
+        OrderGenerator[] generators = new OrderGenerator[workers];
+        for (int i = 0; i < workers; i++) {
+            generators[i] = new OrderGenerator(master.split());
+        }
+        return generators;
+    }
+
+    public Order next() {
+        int product = random.nextInt(PRODUCTS.length);
+        int quantity = 1 + random.nextInt(MAX_QUANTITY);
+
+        // UUID.randomUUID() goes through a shared SecureRandom, far too slow
+        // for a load generator; ids only need to be unique, not unguessable.
+        String orderId = new UUID(random.nextLong(), random.nextLong()).toString();
+
+        return new Order(
+                orderId,
+                "CUST-" + (1000 + random.nextInt(9000)),
+                PRODUCTS[product],
+                quantity,
+                AMOUNTS[product][quantity - 1],
+                STATUSES[random.nextInt(STATUSES.length)],
+                OrderDimensions.region(random.nextInt(OrderDimensions.regionCount())),
+                OrderDimensions.priority(random.nextInt(OrderDimensions.priorityCount())),
+                LocalDateTime.now());
+    }
+
+    /**
+     * Every price x quantity combination, computed once. Sharing the instances
+     * also lets BigDecimal cache its string form, so serializing an amount
+     * costs nothing after the first time.
+     */
+    private static BigDecimal[][] totalAmounts() {
+        BigDecimal[][] amounts = new BigDecimal[PRICES.length][MAX_QUANTITY];
+        for (int p = 0; p < PRICES.length; p++) {
+            for (int q = 1; q <= MAX_QUANTITY; q++) {
+                amounts[p][q - 1] = BigDecimal.valueOf(PRICES[p])
+                        .multiply(BigDecimal.valueOf(q))
+                        .setScale(2, RoundingMode.HALF_UP);
+            }
+        }
+        return amounts;
+    }
+}
@@ -1,67 +1,49 @@
 package com.solace.practice.publisher;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.solace.practice.codec.OrderCodec;
+import com.solace.practice.codec.OrderCodecs;
 import com.solace.practice.model.Order;
-import com.solace.practice.model.OrderStatus;
+import com.solace.practice.transport.Transport;
+import com.solace.practice.transport.Transports;
 import com.solacesystems.jcsmp.*;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.util.Random;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public class OrderPublisher {
 
-    private static final ObjectMapper objectMapper = new ObjectMapper()
-            .registerModule(new JavaTimeModule());
-
-    private static final Random random = new Random();
-
-    private static final String[] REGIONS = {"US-EAST", "US-WEST", "EU", "ASIA"};
-    private static final String[] PRIORITIES = {"NORMAL", "HIGH", "URGENT"};
-    private static final String[] PRODUCTS = {"Laptop", "Mouse", "Keyboard", "Monitor", "Headphones"};
-
     public static void main(String[] args) {
 
         System.out.println("=== Order Publisher Starting ===");
 
-        JCSMPSession session = null;
+        PublisherConfig config = PublisherConfig.fromSystemProperties();
+        System.out.println("Load profile: " + config);
+
+        Transport[] sessions = new Transport[config.getSessions()];
 
         try {
             // Step 1: Create properties object
             JCSMPProperties properties = new JCSMPProperties();
 
             // Step 2: Set connection properties
-            properties.setProperty(JCSMPProperties.HOST, "localhost:55556");
+            properties.setProperty(JCSMPProperties.HOST, config.getHost());
             properties.setProperty(JCSMPProperties.VPN_NAME, "default");
             properties.setProperty(JCSMPProperties.USERNAME, "admin");
             properties.setProperty(JCSMPProperties.PASSWORD, "admin");
 
-            System.out.println("Connecting to Solace broker...");
-
-            // Step 3: Create session and connect
-            session = JCSMPFactory.onlyInstance().createSession(properties);
-            session.connect();
+            // The broker-side ack window is capped at 255 messages
+            properties.setProperty(JCSMPProperties.PUB_ACK_WINDOW_SIZE, Math.min(255, config.getWindowSize()));
 
-            System.out.println("✓ Connected to Solace!");
+            System.out.println("Connecting to Solace broker...");
 
-            // Step 4: Create producer with callback handler
-            XMLMessageProducer producer = session.getMessageProducer(
-                    new JCSMPStreamingPublishEventHandler() {
-                        @Override
-                        public void responseReceived(String messageID) {
-                            System.out.println("  ✓ Broker confirmed: " + messageID);
-                        }
+            // Step 3: Create sessions and connect - one I/O thread each
+            // (host "loopback" uses an in-process broker instead)
+            for (int i = 0; i < sessions.length; i++) {
+                sessions[i] = Transports.connect(properties);
+            }
 
-                        @Override
-                        public void handleError(String messageID, JCSMPException cause, long timestamp) {
-                            System.out.println("  ✗ Error: " + cause.getMessage());
-                        }
-                    }
-            );
+            System.out.println("✓ Connected to Solace! (" + sessions.length + " session(s))");
 
-            System.out.println("✓ Producer created!");
-            System.out.println("\n=== Connection test successful! ===\n");
+            // Step 4: Generate load until the configured duration elapses
+            runLoad(sessions, config);
 
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
@@ -69,10 +51,97 @@ public class OrderPublisher {
 
         } finally {
             // Step 5: Cleanup
-            if (session != null) {
-                session.closeSession();
-                System.out.println("Session closed.");
+            for (Transport session : sessions) {
+                if (session != null) {
+                    session.close();
+                }
+            }
+            System.out.println("Session closed.");
+        }
+    }
+
+    /**
+     * Publishes random orders at the configured rate until the duration
+     * elapses, printing the achieved throughput once per second.
+     *
+     * The rate is split between {@code publisher.threads} workers. Each
+     * worker has its own token bucket pacing its share, its own generator,
+     * codec and (where senders are not thread-safe) its own senders, so
+     * workers share no contended state per order. Every worker can reach
+     * every session shard; acks and failures from all shards land in the
+     * same reporter.
+     */
+    private static void runLoad(Transport[] sessions, PublisherConfig config)
+            throws JCSMPException, InterruptedException {
+        // Topic hierarchy: order/{version}/{region}/{status}/{priority}
+        TopicCache topics = new TopicCache(OrderCodecs.create(config.getTopicVersion()).topicPrefix());
+
+        try (ThroughputReporter reporter = new ThroughputReporter(config.getRatePerSecond());
+             PublishEvents events = new PublishEvents(config.getAckLogSampleEvery())) {
+            PublisherShard[] shards = new PublisherShard[sessions.length];
+            for (int i = 0; i < shards.length; i++) {
+                shards[i] = new PublisherShard(i, sessions[i], config, reporter, events);
+            }
+            System.out.println("✓ Producer created!");
+
+            System.out.println("Order seed: " + config.getSeed());
+            OrderGenerator[] generators = OrderGenerator.split(config.getSeed(), config.getThreads());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+
+            Thread[] workers = new Thread[generators.length];
+            for (int i = 0; i < workers.length; i++) {
+                OrderGenerator generator = generators[i];
+                MessageSender[] perShard = new MessageSender[shards.length];
+                for (int s = 0; s < shards.length; s++) {
+                    perShard[s] = shards[s].newSender();
+                }
+                ShardedSender sender = new ShardedSender(perShard);
+                OrderCodec codec = OrderCodecs.create(config.getTopicVersion());
+                TokenBucket bucket = workerBucket(config.getRatePerSecond(), workers.length, i);
+                workers[i] = new Thread(() -> publishUntil(deadline, bucket, generator, codec, topics, sender, reporter),
+                        "order-publisher-" + i);
+                workers[i].start();
+            }
+            for (Thread worker : workers) {
+                worker.join();
+            }
+
+            if (config.getDeliveryMode() == DeliveryMode.PERSISTENT) {
+                System.out.println("Waiting for outstanding acknowledgements...");
+            }
+            for (PublisherShard shard : shards) {
+                shard.drain(30, TimeUnit.SECONDS);
+            }
+        }
+    }
+
+    /**
+     * A bucket pacing one worker's share of the rate. The remainder of the
+     * division goes one permit each to the first workers, so the shares add
+     * up to the whole rate.
+     */
+    private static TokenBucket workerBucket(long ratePerSecond, int workers, int worker) {
+        long share = ratePerSecond / workers + (worker < ratePerSecond % workers ? 1 : 0);
+        // Allow up to 10ms worth of messages to go out back-to-back after a stall
+        return new TokenBucket(share, Math.max(1, share / 100));
+    }
+
+    private static void publishUntil(long deadline, TokenBucket bucket, OrderGenerator generator, OrderCodec codec,
+                                     TopicCache topics, ShardedSender sender, ThroughputReporter reporter) {
+        while (System.nanoTime() < deadline) {
+            bucket.acquire();
+            try {
+                publishOrder(sender, codec, topics, generator.next());
+                reporter.recordSent();
+            } catch (JCSMPException e) {
+                reporter.recordFailed();
             }
         }
     }
-}
\ No newline at end of file
+
+    private static void publishOrder(ShardedSender sender, OrderCodec codec, TopicCache topics, Order order)
+            throws JCSMPException {
+        int length = codec.encode(order);
+        sender.send(order.getOrderId(), codec.buffer(), length, topics.get(order));
+    }
+}
@@ -0,0 +1,36 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.log.EventLog;
+import com.solacesystems.jcsmp.JCSMPException;
+
+/**
+ * The publisher's broker callback log: acks are sampled, errors are always
+ * printed. Both go through an {@link EventLog}, so the JCSMP callback thread
+ * never blocks on the console.
+ */
+public class PublishEvents implements AutoCloseable {
+
+    private final EventLog log = new EventLog(64 * 1024);
+    private final EventLog.Category acks;
+    private final EventLog.Category errors;
+
+    /** @param ackSampleEvery print one ack in this many */
+    public PublishEvents(long ackSampleEvery) {
+        this.acks = log.category("ack", ackSampleEvery);
+        this.errors = log.category("error", 1);
+    }
+
+    public void acknowledged(Object what) {
+        log.log(acks, "✓ Broker confirmed: ", what);
+    }
+
+    public void failed(Object what, JCSMPException cause) {
+        // Errors are rare enough that building the text here is fine
+        log.log(errors, "✗ Error: " + (what == null ? "" : what + ": "), cause == null ? null : cause.getMessage());
+    }
+
+    @Override
+    public void close() {
+        log.close();
+    }
+}
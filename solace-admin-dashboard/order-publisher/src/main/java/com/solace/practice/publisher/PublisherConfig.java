@@ -0,0 +1,139 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.codec.OrderCodecs;
+import com.solacesystems.jcsmp.DeliveryMode;
+
+/**
+ * Load generator settings, read from system properties so they can be passed
+ * straight through mvn exec:java, e.g.
+ * <pre>
+ *   mvn exec:java -Dexec.mainClass=com.solace.practice.publisher.OrderPublisher \
+ *       -Dpublisher.rate=100000 -Dpublisher.durationSeconds=60
+ * </pre>
+ */
+public class PublisherConfig {
+
+    private final String host;
+    private final long ratePerSecond;
+    private final long durationSeconds;
+    private final DeliveryMode deliveryMode;
+    private final int windowSize;
+    private final int maxRetries;
+    private final int batchSize;
+    private final long lingerMicros;
+    private final String topicVersion;
+    private final int threads;
+    private final long seed;
+    private final int sessions;
+    private final long ackLogSampleEvery;
+
+    public PublisherConfig(String host, long ratePerSecond, long durationSeconds, DeliveryMode deliveryMode,
+                           int windowSize, int maxRetries, int batchSize, long lingerMicros, String topicVersion,
+                           int threads, long seed, int sessions, long ackLogSampleEvery) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("publisher.rate must be positive: " + ratePerSecond);
+        }
+        if (durationSeconds <= 0) {
+            throw new IllegalArgumentException("publisher.durationSeconds must be positive: " + durationSeconds);
+        }
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("publisher.window must be at least 1: " + windowSize);
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("publisher.maxRetries must not be negative: " + maxRetries);
+        }
+        if (batchSize < 1 || batchSize > BatchingSender.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("publisher.batchSize must be between 1 and "
+                    + BatchingSender.MAX_BATCH_SIZE + ": " + batchSize);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("publisher.threads must be at least 1: " + threads);
+        }
+        if (threads > ratePerSecond) {
+            throw new IllegalArgumentException("publisher.threads must not exceed publisher.rate, since each thread"
+                    + " paces its own share: " + threads + " > " + ratePerSecond);
+        }
+        if (sessions < 1) {
+            throw new IllegalArgumentException("publisher.sessions must be at least 1: " + sessions);
+        }
+        if (ackLogSampleEvery < 1) {
+            throw new IllegalArgumentException("publisher.ackLogSampleEvery must be at least 1: " + ackLogSampleEvery);
+        }
+        if (lingerMicros < 1) {
+            throw new IllegalArgumentException("publisher.lingerMicros must be positive: " + lingerMicros);
+        }
+        this.host = host;
+        this.ratePerSecond = ratePerSecond;
+        this.durationSeconds = durationSeconds;
+        this.deliveryMode = deliveryMode;
+        this.windowSize = windowSize;
+        this.maxRetries = maxRetries;
+        this.batchSize = batchSize;
+        this.lingerMicros = lingerMicros;
+        this.topicVersion = topicVersion;
+        this.threads = threads;
+        this.seed = seed;
+        this.sessions = sessions;
+        this.ackLogSampleEvery = ackLogSampleEvery;
+    }
+
+    public static PublisherConfig fromSystemProperties() {
+        return new PublisherConfig(
+                System.getProperty("publisher.host", "localhost:55556"),
+                Long.getLong("publisher.rate", 10_000L),
+                Long.getLong("publisher.durationSeconds", 30L),
+                DeliveryMode.valueOf(System.getProperty("publisher.deliveryMode", "DIRECT")),
+                Integer.getInteger("publisher.window", 255),
+                Integer.getInteger("publisher.maxRetries", 3),
+                Integer.getInteger("publisher.batchSize", 1),
+                Long.getLong("publisher.lingerMicros", 1000L),
+                System.getProperty("publisher.topicVersion", OrderCodecs.JSON_VERSION),
+                Integer.getInteger("publisher.threads", 1),
+                Long.getLong("publisher.seed", System.nanoTime()),
+                Integer.getInteger("publisher.sessions", 1),
+                Long.getLong("publisher.ackLogSampleEvery", 10_000L));
+    }
+
+    public String getHost() { return host; }
+
+    public long getRatePerSecond() { return ratePerSecond; }
+
+    public long getDurationSeconds() { return durationSeconds; }
+
+    public DeliveryMode getDeliveryMode() { return deliveryMode; }
+
+    /** Maximum number of unacknowledged PERSISTENT messages. */
+    public int getWindowSize() { return windowSize; }
+
+    /** How many times a rejected PERSISTENT message is resent before it counts as failed. */
+    public int getMaxRetries() { return maxRetries; }
+
+    /** Messages per sendMultiple call; 1 disables batching. */
+    public int getBatchSize() { return batchSize; }
+
+    /** Longest time a message waits for its batch to fill. */
+    public long getLingerMicros() { return lingerMicros; }
+
+    /** Topic version to publish under, which also picks the payload encoding (see OrderCodecs). */
+    public String getTopicVersion() { return topicVersion; }
+
+    /** Number of generating/publishing threads; each paces an equal share of the target rate. */
+    public int getThreads() { return threads; }
+
+    /** Master seed every worker's random stream is split from; reuse it to replay a workload. */
+    public long getSeed() { return seed; }
+
+    /** Number of sessions orders are sharded across by orderId. */
+    public int getSessions() { return sessions; }
+
+    /** Print one broker ack in this many; the rest are only counted. */
+    public long getAckLogSampleEvery() { return ackLogSampleEvery; }
+
+    @Override
+    public String toString() {
+        return String.format("rate=%,d msg/s, duration=%ds, threads=%d, sessions=%d, deliveryMode=%s, window=%d,"
+                        + " batch=%d/%dus, topics=order/%s, host=%s",
+                ratePerSecond, durationSeconds, threads, sessions, deliveryMode, windowSize, batchSize, lingerMicros,
+                topicVersion, host);
+    }
+}
@@ -0,0 +1,103 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.transport.Transport;
+import com.solace.practice.transport.TransportPublisher;
+import com.solacesystems.jcsmp.DeliveryMode;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPStreamingPublishEventHandler;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One session's share of the load: its producer plus whichever sender the
+ * delivery mode calls for.
+ *
+ * Each session has its own I/O thread, so spreading traffic over several
+ * shards lets one JVM push past what a single session can carry.
+ */
+public class PublisherShard {
+
+    private final int index;
+    private final GuaranteedPublisher guaranteed;
+    private final BatchingSender batcher;
+    private final TransportPublisher directProducer;
+
+    public PublisherShard(int index, Transport session, PublisherConfig config, ThroughputReporter reporter,
+                          PublishEvents events) throws JCSMPException {
+        this.index = index;
+        if (config.getDeliveryMode() == DeliveryMode.PERSISTENT) {
+            this.guaranteed = new GuaranteedPublisher(session, config.getWindowSize(), config.getMaxRetries(),
+                    config.getBatchSize(), config.getLingerMicros(),
+                    new GuaranteedPublisher.Listener() {
+                        @Override
+                        public void onAcknowledged(Destination destination, long latencyNanos) {
+                            reporter.recordAcknowledged(latencyNanos);
+                            events.acknowledged(destination);
+                        }
+
+                        @Override
+                        public void onFailed(Destination destination, JCSMPException cause) {
+                            reporter.recordFailed();
+                            events.failed(destination, cause);
+                        }
+                    });
+            this.batcher = null;
+            this.directProducer = null;
+        } else {
+            this.guaranteed = null;
+            this.directProducer = createDirectProducer(session, events);
+            this.batcher = config.getBatchSize() > 1
+                    ? new BatchingSender(directProducer, config.getBatchSize(), config.getLingerMicros(),
+                            (message, cause) -> reporter.recordFailed())
+                    : null;
+        }
+    }
+
+    /**
+     * A sender for one publishing thread. Guaranteed and batching senders are
+     * thread-safe and shared; a DirectSender reuses one message, so each
+     * thread gets its own on top of the shared producer.
+     */
+    public MessageSender newSender() {
+        if (guaranteed != null) {
+            return guaranteed;
+        }
+        if (batcher != null) {
+            return batcher;
+        }
+        return new DirectSender(directProducer);
+    }
+
+    /** Sends anything still buffered and, for PERSISTENT, waits for outstanding acks. */
+    public void drain(long timeout, TimeUnit unit) throws InterruptedException {
+        if (batcher != null) {
+            batcher.close();
+        }
+        if (guaranteed != null) {
+            if (!guaranteed.flush(timeout, unit)) {
+                System.out.println("✗ Shard " + index + ": " + guaranteed.getInFlight()
+                        + " messages still unacknowledged");
+            }
+            guaranteed.close();
+            System.out.printf("  Shard %d: %,d acked, %,d retried, %,d failed%n", index,
+                    guaranteed.getAcknowledged(), guaranteed.getRetried(), guaranteed.getFailed());
+        }
+    }
+
+    private static TransportPublisher createDirectProducer(Transport session, PublishEvents events)
+            throws JCSMPException {
+        return session.createPublisher(
+                new JCSMPStreamingPublishEventHandler() {
+                    @Override
+                    public void responseReceived(String messageID) {
+                        events.acknowledged(messageID);
+                    }
+
+                    @Override
+                    public void handleError(String messageID, JCSMPException cause, long timestamp) {
+                        events.failed(messageID, cause);
+                    }
+                }
+        );
+    }
+}
@@ -0,0 +1,28 @@
+package com.solace.practice.publisher;
+
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+
+/**
+ * Spreads one publishing thread's messages over the session shards.
+ *
+ * The shard is chosen from a hash of the orderId, so every event for a given
+ * order leaves through the same session and keeps its publish order.
+ */
+public class ShardedSender {
+
+    private final MessageSender[] shards;
+
+    public ShardedSender(MessageSender[] shards) {
+        this.shards = shards.clone();
+    }
+
+    public void send(String orderId, byte[] payload, int length, Destination destination) throws JCSMPException {
+        shards[shardFor(orderId, shards.length)].send(payload, length, destination);
+    }
+
+    public static int shardFor(String orderId, int shardCount) {
+        // String caches its hash, so repeated lookups for the same id are free
+        return Math.floorMod(orderId.hashCode(), shardCount);
+    }
+}
@@ -0,0 +1,92 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.metrics.LatencyHistogram;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts published messages and prints the achieved rate once per second.
+ *
+ * For PERSISTENT traffic it also keeps a histogram of publish-to-ack
+ * latency, printed for each interval and for the whole run.
+ *
+ * Publishing and callback threads only touch LongAdders and the histogram;
+ * all formatting and printing happens on the reporter's own daemon thread.
+ */
+public class ThroughputReporter implements AutoCloseable {
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram ackLatency = new LatencyHistogram();
+    private final long targetRate;
+    private final long startNanos = System.nanoTime();
+    private final ScheduledExecutorService scheduler;
+
+    private long lastSent;
+    private long lastNanos = startNanos;
+    private LatencyHistogram.Snapshot lastLatency = ackLatency.snapshot();
+
+    public ThroughputReporter(long targetRate) {
+        this.targetRate = targetRate;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "throughput-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleAtFixedRate(this::report, 1, 1, TimeUnit.SECONDS);
+    }
+
+    public void recordSent() {
+        sent.increment();
+    }
+
+    public void recordAcknowledged(long latencyNanos) {
+        acknowledged.increment();
+        ackLatency.recordValue(latencyNanos);
+    }
+
+    public void recordFailed() {
+        failed.increment();
+    }
+
+    public long getSent() {
+        return sent.sum();
+    }
+
+    private void report() {
+        long now = System.nanoTime();
+        long total = sent.sum();
+        double seconds = (now - lastNanos) / 1e9;
+        long rate = Math.round((total - lastSent) / seconds);
+        lastSent = total;
+        lastNanos = now;
+
+        System.out.printf("[%4ds] %,10d msg/s (target %,d) | total %,d | acked %,d | failed %,d%n",
+                TimeUnit.NANOSECONDS.toSeconds(now - startNanos), rate, targetRate, total,
+                acknowledged.sum(), failed.sum());
+
+        LatencyHistogram.Snapshot latency = ackLatency.snapshot();
+        LatencyHistogram.Snapshot interval = latency.minus(lastLatency);
+        lastLatency = latency;
+        if (interval.getTotalCount() > 0) {
+            System.out.println("       ack latency " + interval.formatMicros());
+        }
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long total = sent.sum();
+        System.out.printf("%nPublished %,d messages in %.1fs (avg %,d msg/s, %,d acked, %,d failed)%n",
+                total, seconds, Math.round(total / seconds), acknowledged.sum(), failed.sum());
+
+        LatencyHistogram.Snapshot latency = ackLatency.snapshot();
+        if (latency.getTotalCount() > 0) {
+            System.out.println("Publish-to-ack latency: " + latency.formatMicros());
+        }
+    }
+}
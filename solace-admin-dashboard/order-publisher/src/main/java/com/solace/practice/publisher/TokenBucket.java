@@ -0,0 +1,71 @@
+package com.solace.practice.publisher;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces publishing to a target rate.
+ *
+ * Rather than refilling a token counter on a timer, the bucket keeps the
+ * point in time at which the next permit becomes available. Taking a permit
+ * moves that point forward by one interval; if it is still in the future the
+ * caller waits until then. Idle time is credited back up to {@code burst}
+ * permits, so a short stall does not turn into an unbounded catch-up spike.
+ *
+ * Safe to share between publishing threads, though every acquire then
+ * CASes the same word; OrderPublisher gives each worker its own bucket.
+ */
+public class TokenBucket {
+
+    // Parking is only accurate to tens of microseconds; shorter waits spin.
+    private static final long SPIN_THRESHOLD_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final long nanosPerPermit;
+    private final long burstNanos;
+    private final AtomicLong nextPermitNanos;
+
+    public TokenBucket(long permitsPerSecond, long burst) {
+        if (permitsPerSecond <= 0 || permitsPerSecond > TimeUnit.SECONDS.toNanos(1)) {
+            throw new IllegalArgumentException("permitsPerSecond out of range: " + permitsPerSecond);
+        }
+        if (burst < 1) {
+            throw new IllegalArgumentException("burst must be at least 1: " + burst);
+        }
+        this.nanosPerPermit = TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+        this.burstNanos = burst * nanosPerPermit;
+        this.nextPermitNanos = new AtomicLong(System.nanoTime());
+    }
+
+    /** Blocks until one permit is available. */
+    public void acquire() {
+        acquire(1);
+    }
+
+    /** Blocks until {@code permits} permits are available. */
+    public void acquire(int permits) {
+        long cost = permits * nanosPerPermit;
+        long now = System.nanoTime();
+        long due;
+        while (true) {
+            long current = nextPermitNanos.get();
+            // Never bank more than the burst allowance of idle time
+            due = Math.max(current, now - burstNanos);
+            if (nextPermitNanos.compareAndSet(current, due + cost)) {
+                break;
+            }
+        }
+        waitUntil(due);
+    }
+
+    private static void waitUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.solace.practice.publisher;
+
+import com.solace.practice.model.Order;
+import com.solace.practice.model.OrderDimensions;
+import com.solace.practice.model.OrderStatus;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.Topic;
+
+/**
+ * Every Topic in the {prefix}/{region}/{status}/{priority} hierarchy, built
+ * once up front.
+ *
+ * With 4 regions, 6 statuses and 3 priorities there are only 72 destinations,
+ * so the publisher looks them up in a flat array instead of formatting a
+ * topic string and calling createTopic for every message.
+ */
+public class TopicCache {
+
+    private static final OrderStatus[] STATUSES = OrderStatus.values();
+
+    private final Topic[] topics;
+
+    public TopicCache(String prefix) {
+        int regions = OrderDimensions.regionCount();
+        int priorities = OrderDimensions.priorityCount();
+        this.topics = new Topic[regions * STATUSES.length * priorities];
+
+        for (int r = 0; r < regions; r++) {
+            for (OrderStatus status : STATUSES) {
+                for (int p = 0; p < priorities; p++) {
+                    topics[index(r, status, p)] = JCSMPFactory.onlyInstance().createTopic(prefix
+                            + "/" + OrderDimensions.region(r) + "/" + status + "/" + OrderDimensions.priority(p));
+                }
+            }
+        }
+    }
+
+    /** Topic for a region and priority given by their OrderDimensions index. */
+    public Topic get(int regionIndex, OrderStatus status, int priorityIndex) {
+        return topics[index(regionIndex, status, priorityIndex)];
+    }
+
+    public Topic get(Order order) {
+        int region = OrderDimensions.regionIndex(order.getRegion());
+        int priority = OrderDimensions.priorityIndex(order.getPriority());
+        if (region < 0 || priority < 0) {
+            throw new IllegalArgumentException("No topic for region " + order.getRegion()
+                    + " and priority " + order.getPriority());
+        }
+        return get(region, order.getStatus(), priority);
+    }
+
+    public int size() {
+        return topics.length;
+    }
+
+    private static int index(int regionIndex, OrderStatus status, int priorityIndex) {
+        return (regionIndex * STATUSES.length + status.ordinal()) * OrderDimensions.priorityCount() + priorityIndex;
+    }
+}
@@ -0,0 +1,307 @@
+package com.solace.practice.transport;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The on-disk side of a durable {@link LoopbackBroker} queue: an append-only
+ * log split into memory-mapped segment files, plus what has been acked and
+ * how far delivery has got.
+ *
+ * A message is identified by its offset, its byte position in the log as a
+ * whole. Records are 8-byte aligned:
+ *
+ * <pre>
+ *   int   recordLength   (written last; 0 means end of log)
+ *   short topicLength
+ *   short unused
+ *   long  sendTimeNanos  (see SendTimestamps; 0 if unknown)
+ *   byte  topic[topicLength]   UTF-8
+ *   byte  payload[recordLength - 16 - topicLength]
+ * </pre>
+ *
+ * Each segment has a bitmap with one bit per 8 bytes of log, set when the
+ * record starting there is acked. A mapped cursor holds the offset after
+ * the furthest message handed to a consumer, so on recovery messages before
+ * it are flagged redelivered. Once a finished segment is fully acked both
+ * its files are deleted.
+ *
+ * Data is written to mapped pages and left to the kernel to flush, so it
+ * survives the process being killed but not the machine losing power. The
+ * segment size must stay the same for as long as the directory is reused.
+ */
+public class DurableQueueLog {
+
+    public static final int DEFAULT_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final int HEADER_SIZE = 16;
+    private static final int ALIGNMENT = 8;
+    private static final int MAX_CACHED_TOPICS = 10_000;
+    private static final String LOG_SUFFIX = ".log";
+    private static final String ACKS_SUFFIX = ".acks";
+
+    // Atomic access to the longs of a mapped bitmap or cursor
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /** Receives each message that was still unacked when the log was opened. */
+    @FunctionalInterface
+    public interface RecoveryVisitor {
+        void onMessage(long offset, String topic, byte[] payload, long sendTimeNanos, boolean redelivered);
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final Map<String, byte[]> topicBytes = new ConcurrentHashMap<>();
+    private final MappedByteBuffer cursor;
+
+    // Guarded by this
+    private Segment active;
+
+    private DurableQueueLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.cursor = map(directory.resolve("cursor"), 8);
+    }
+
+    /**
+     * Opens the log in {@code directory}, creating it if needed, and passes
+     * every message not yet acked to {@code visitor} in log order.
+     */
+    public static DurableQueueLog open(Path directory, int segmentSize, RecoveryVisitor visitor) {
+        if (segmentSize < 1024 || segmentSize % 64 != 0) {
+            throw new IllegalArgumentException("segmentSize must be a multiple of 64 and at least 1024: " + segmentSize);
+        }
+        try {
+            Files.createDirectories(directory);
+            DurableQueueLog log = new DurableQueueLog(directory, segmentSize);
+            log.recover(visitor);
+            return log;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open queue log in " + directory, e);
+        }
+    }
+
+    /** Appends a message and returns its offset. */
+    public synchronized long append(String topic, byte[] payload, long sendTimeNanos) {
+        byte[] topicUtf8 = topicBytes(topic);
+        int recordLength = HEADER_SIZE + topicUtf8.length + payload.length;
+        int size = align(recordLength);
+        // Leave room for the zero length that marks the end of the segment
+        if (size + 4 > segmentSize) {
+            throw new IllegalArgumentException("Message of " + payload.length + " bytes does not fit a segment");
+        }
+        if (active == null || active.writePosition + size + 4 > segmentSize) {
+            roll();
+        }
+        Segment segment = active;
+        int position = segment.writePosition;
+        MappedByteBuffer data = segment.data;
+        data.putShort(position + 4, (short) topicUtf8.length);
+        data.putLong(position + 8, sendTimeNanos);
+        data.position(position + HEADER_SIZE);
+        data.put(topicUtf8).put(payload);
+        // A record only exists once its length is in place
+        data.putInt(position, recordLength);
+        segment.writePosition = position + size;
+        segment.records.incrementAndGet();
+        return segment.base + position;
+    }
+
+    /** Marks the message at {@code offset} as consumed. Acking twice has no further effect. */
+    public void ack(long offset) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        if (entry == null) {
+            return;
+        }
+        Segment segment = entry.getValue();
+        if (offset - segment.base >= segmentSize) {
+            // Its segment was fully acked and deleted already
+            return;
+        }
+        int bit = (int) (offset - segment.base) / ALIGNMENT;
+        int index = (bit >>> 6) * 8;
+        long mask = 1L << (bit & 63);
+        long word;
+        do {
+            word = (long) LONGS.getVolatile(segment.acks, index);
+            if ((word & mask) != 0) {
+                return;
+            }
+        } while (!LONGS.compareAndSet(segment.acks, index, word, word | mask));
+
+        if (segment.acked.incrementAndGet() == segment.records.get() && segment.sealed) {
+            delete(segment);
+        }
+    }
+
+    /** Records that the message at {@code offset} has been handed to a consumer. */
+    public void markDispatched(long offset) {
+        long next = offset + 1;
+        long current;
+        do {
+            current = (long) LONGS.getVolatile(cursor, 0);
+        } while (current < next && !LONGS.compareAndSet(cursor, 0, current, next));
+    }
+
+    /** Number of segment files currently on disk. */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    private void recover(RecoveryVisitor visitor) throws IOException {
+        List<Long> bases = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + LOG_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                bases.add(Long.parseLong(name.substring(0, name.length() - LOG_SUFFIX.length())));
+            }
+        }
+        bases.sort(null);
+
+        long dispatched = (long) LONGS.getVolatile(cursor, 0);
+        for (long base : bases) {
+            Segment segment = openSegment(base);
+            MappedByteBuffer data = segment.data;
+            int position = 0;
+            int recordLength;
+            while (position + 4 <= segmentSize && (recordLength = data.getInt(position)) > 0) {
+                segment.records.incrementAndGet();
+                long offset = base + position;
+                if (isAcked(segment, position)) {
+                    segment.acked.incrementAndGet();
+                } else {
+                    int topicLength = data.getShort(position + 4);
+                    byte[] topic = new byte[topicLength];
+                    byte[] payload = new byte[recordLength - HEADER_SIZE - topicLength];
+                    data.position(position + HEADER_SIZE);
+                    data.get(topic).get(payload);
+                    visitor.onMessage(offset, new String(topic, StandardCharsets.UTF_8), payload,
+                            data.getLong(position + 8), offset < dispatched);
+                }
+                position += align(recordLength);
+            }
+            segment.writePosition = position;
+            segments.put(base, segment);
+            active = segment;
+        }
+        // Only the last segment is appended to; earlier ones may already be done with
+        for (Segment segment : segments.values()) {
+            if (segment != active) {
+                segment.sealed = true;
+                if (segment.acked.get() == segment.records.get()) {
+                    delete(segment);
+                }
+            }
+        }
+    }
+
+    private void roll() {
+        long base;
+        if (active != null) {
+            base = active.base + segmentSize;
+        } else {
+            // Offsets must keep growing past the cursor even if every old segment is gone
+            long dispatched = (long) LONGS.getVolatile(cursor, 0);
+            base = (dispatched + segmentSize - 1) / segmentSize * segmentSize;
+        }
+        Segment previous = active;
+        try {
+            active = openSegment(base);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create segment in " + directory, e);
+        }
+        segments.put(base, active);
+        if (previous != null) {
+            previous.sealed = true;
+            if (previous.acked.get() == previous.records.get()) {
+                delete(previous);
+            }
+        }
+    }
+
+    private Segment openSegment(long base) throws IOException {
+        String name = String.format("%020d", base);
+        MappedByteBuffer data = map(directory.resolve(name + LOG_SUFFIX), segmentSize);
+        MappedByteBuffer acks = map(directory.resolve(name + ACKS_SUFFIX), segmentSize / ALIGNMENT / 8);
+        return new Segment(base, data, acks);
+    }
+
+    private void delete(Segment segment) {
+        // Only one caller may win; the mapping itself is released when the buffers are collected
+        if (segments.remove(segment.base, segment)) {
+            String name = String.format("%020d", segment.base);
+            try {
+                Files.deleteIfExists(directory.resolve(name + LOG_SUFFIX));
+                Files.deleteIfExists(directory.resolve(name + ACKS_SUFFIX));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot delete segment " + name, e);
+            }
+        }
+    }
+
+    private static boolean isAcked(Segment segment, int position) {
+        int bit = position / ALIGNMENT;
+        return ((long) LONGS.getVolatile(segment.acks, (bit >>> 6) * 8) & (1L << (bit & 63))) != 0;
+    }
+
+    private byte[] topicBytes(String topic) {
+        byte[] bytes = topicBytes.get(topic);
+        if (bytes == null) {
+            bytes = topic.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > Short.MAX_VALUE) {
+                throw new IllegalArgumentException("Topic too long: " + topic);
+            }
+            if (topicBytes.size() >= MAX_CACHED_TOPICS) {
+                topicBytes.clear();
+            }
+            topicBytes.put(topic, bytes);
+        }
+        return bytes;
+    }
+
+    private static int align(int length) {
+        return (length + ALIGNMENT - 1) & -ALIGNMENT;
+    }
+
+    private static MappedByteBuffer map(Path file, int size) throws IOException {
+        // The channel can be closed at once; the mapping stays valid
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+    }
+
+    private static final class Segment {
+        final long base;
+        final MappedByteBuffer data;
+        final MappedByteBuffer acks;
+        final AtomicInteger records = new AtomicInteger();
+        final AtomicInteger acked = new AtomicInteger();
+        volatile boolean sealed;
+        int writePosition;
+
+        Segment(long base, MappedByteBuffer data, MappedByteBuffer acks) {
+            this.base = base;
+            this.data = data;
+            this.acks = acks;
+        }
+    }
+}
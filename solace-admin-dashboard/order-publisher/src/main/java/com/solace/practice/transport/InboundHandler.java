@@ -0,0 +1,12 @@
+package com.solace.practice.transport;
+
+import com.solacesystems.jcsmp.JCSMPException;
+
+/** Receives a flow's messages; mirrors XMLMessageListener. */
+public interface InboundHandler {
+
+    /** Called on the flow's dispatcher thread, one message at a time. */
+    void onMessage(InboundMessage message);
+
+    void onException(JCSMPException cause);
+}
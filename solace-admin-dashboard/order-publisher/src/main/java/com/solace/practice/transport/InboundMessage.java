@@ -0,0 +1,30 @@
+package com.solace.practice.transport;
+
+/**
+ * A message delivered by a {@link TransportFlow}.
+ *
+ * The payload is exposed as a slice of an array rather than copied, so it
+ * can go straight into OrderCodec.decode. It stays valid for as long as the
+ * message is referenced, so a handler may pass the message on to another
+ * thread and ack it there.
+ */
+public interface InboundMessage {
+
+    /** Name of the topic the message was published on. */
+    String getTopic();
+
+    byte[] getPayloadArray();
+
+    int getPayloadOffset();
+
+    int getPayloadLength();
+
+    /** When the message was published, in epoch nanoseconds; 0 if it was not stamped. See {@link SendTimestamps}. */
+    long getSendTimeNanos();
+
+    /** True if this message was delivered before and not acknowledged. */
+    boolean isRedelivered();
+
+    /** Removes the message from its queue. Only needed on client-ack flows. */
+    void ack();
+}
@@ -0,0 +1,171 @@
+package com.solace.practice.transport;
+
+import com.solacesystems.jcsmp.BytesXMLMessage;
+import com.solacesystems.jcsmp.ConsumerFlowProperties;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.EndpointProperties;
+import com.solacesystems.jcsmp.FlowReceiver;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.JCSMPProperties;
+import com.solacesystems.jcsmp.JCSMPSendMultipleEntry;
+import com.solacesystems.jcsmp.JCSMPSession;
+import com.solacesystems.jcsmp.JCSMPStreamingPublishEventHandler;
+import com.solacesystems.jcsmp.Queue;
+import com.solacesystems.jcsmp.XMLMessage;
+import com.solacesystems.jcsmp.XMLMessageListener;
+import com.solacesystems.jcsmp.XMLMessageProducer;
+import java.nio.ByteBuffer;
+
+/** A {@link Transport} backed by a connected JCSMPSession. */
+public class JcsmpTransport implements Transport {
+
+    private final JCSMPSession session;
+
+    public JcsmpTransport(JCSMPSession session) {
+        this.session = session;
+    }
+
+    @Override
+    public TransportPublisher createPublisher(JCSMPStreamingPublishEventHandler handler) throws JCSMPException {
+        XMLMessageProducer producer = session.getMessageProducer(handler);
+        return new TransportPublisher() {
+            @Override
+            public void send(XMLMessage message, Destination destination) throws JCSMPException {
+                producer.send(message, destination);
+            }
+
+            @Override
+            public int sendMultiple(JCSMPSendMultipleEntry[] entries, int offset, int length) throws JCSMPException {
+                return producer.sendMultiple(entries, offset, length, 0);
+            }
+
+            @Override
+            public void close() {
+                producer.close();
+            }
+        };
+    }
+
+    @Override
+    public void provisionQueue(String queueName) throws JCSMPException {
+        EndpointProperties endpointProps = new EndpointProperties();
+        endpointProps.setAccessType(EndpointProperties.ACCESSTYPE_NONEXCLUSIVE);
+        endpointProps.setPermission(EndpointProperties.PERMISSION_CONSUME);
+        session.provision(queue(queueName), endpointProps, JCSMPSession.FLAG_IGNORE_ALREADY_EXISTS);
+    }
+
+    @Override
+    public void addSubscription(String queueName, String topicPattern) throws JCSMPException {
+        session.addSubscription(queue(queueName), JCSMPFactory.onlyInstance().createTopic(topicPattern),
+                JCSMPSession.WAIT_FOR_CONFIRM);
+    }
+
+    @Override
+    public TransportFlow createFlow(String queueName, boolean clientAck, InboundHandler handler)
+            throws JCSMPException {
+        ConsumerFlowProperties flowProps = new ConsumerFlowProperties();
+        flowProps.setEndpoint(queue(queueName));
+        flowProps.setAckMode(clientAck ? JCSMPProperties.SUPPORTED_MESSAGE_ACK_CLIENT
+                : JCSMPProperties.SUPPORTED_MESSAGE_ACK_AUTO);
+
+        FlowReceiver flow = session.createFlow(new XMLMessageListener() {
+            @Override
+            public void onReceive(BytesXMLMessage message) {
+                handler.onMessage(new JcsmpInboundMessage(message));
+            }
+
+            @Override
+            public void onException(JCSMPException cause) {
+                handler.onException(cause);
+            }
+        }, flowProps);
+
+        return new TransportFlow() {
+            @Override
+            public void start() throws JCSMPException {
+                flow.start();
+            }
+
+            @Override
+            public void stop() {
+                flow.stop();
+            }
+
+            @Override
+            public void close() {
+                flow.close();
+            }
+        };
+    }
+
+    @Override
+    public void close() {
+        session.closeSession();
+    }
+
+    private static Queue queue(String queueName) {
+        return JCSMPFactory.onlyInstance().createQueue(queueName);
+    }
+
+    private static final class JcsmpInboundMessage implements InboundMessage {
+
+        private static final ByteBuffer EMPTY = ByteBuffer.allocate(0);
+
+        private final BytesXMLMessage message;
+        private final ByteBuffer payload;
+
+        JcsmpInboundMessage(BytesXMLMessage message) {
+            this.message = message;
+            this.payload = heapPayload(message.getAttachmentByteBuffer());
+        }
+
+        // The payload is read through its backing array; a read-only or direct buffer has none to share
+        private static ByteBuffer heapPayload(ByteBuffer attachment) {
+            if (attachment == null) {
+                return EMPTY;
+            }
+            if (attachment.hasArray()) {
+                return attachment;
+            }
+            byte[] copy = new byte[attachment.remaining()];
+            attachment.duplicate().get(copy);
+            return ByteBuffer.wrap(copy);
+        }
+
+        @Override
+        public String getTopic() {
+            return message.getDestination().getName();
+        }
+
+        @Override
+        public byte[] getPayloadArray() {
+            return payload.array();
+        }
+
+        @Override
+        public int getPayloadOffset() {
+            return payload.arrayOffset() + payload.position();
+        }
+
+        @Override
+        public int getPayloadLength() {
+            return payload.remaining();
+        }
+
+        @Override
+        public long getSendTimeNanos() {
+            return SendTimestamps.read(message);
+        }
+
+        @Override
+        public boolean isRedelivered() {
+            return message.getRedelivered();
+        }
+
+        @Override
+        public void ack() {
+            message.ackMessage();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.solace.practice.transport;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * An in-process stand-in for a Solace broker: topic routing with wildcard
+ * subscriptions into named queues, nothing more.
+ *
+ * It exists so the publisher and dashboard can be run, profiled and
+ * load-tested without a broker container. Routing costs one map lookup per
+ * message: the queues a topic maps to are computed once and cached until
+ * the subscriptions change, and the order topics come from a small fixed set.
+ *
+ * Queues are bounded. A publish that finds a matching queue full is
+ * rejected, which a {@link LoopbackTransport} reports to PERSISTENT
+ * publishers the way the broker would.
+ *
+ * Without a data directory nothing is persisted. With one, every queue
+ * writes its messages to a {@link DurableQueueLog} in a subdirectory named
+ * after it, and provisioning an existing queue after a restart puts its
+ * unacked messages back on the queue.
+ */
+public class LoopbackBroker {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 1_000_000;
+
+    // Topics are usually the 72 order topics; this only guards against unbounded growth
+    private static final int MAX_CACHED_ROUTES = 10_000;
+    private static final Queue[] NO_QUEUES = new Queue[0];
+
+    private static final LoopbackBroker SHARED = new LoopbackBroker(DEFAULT_QUEUE_CAPACITY);
+    private static final Map<Path, LoopbackBroker> SHARED_DURABLE = new ConcurrentHashMap<>();
+
+    private final int queueCapacity;
+    private final Path dataDirectory;
+    private final Map<String, Queue> queues = new ConcurrentHashMap<>();
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final Map<String, Queue[]> routes = new ConcurrentHashMap<>();
+
+    public LoopbackBroker(int queueCapacity) {
+        this(queueCapacity, null);
+    }
+
+    /** @param dataDirectory where durable queues keep their logs, or null to keep nothing */
+    public LoopbackBroker(int queueCapacity, Path dataDirectory) {
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity must be at least 1: " + queueCapacity);
+        }
+        this.queueCapacity = queueCapacity;
+        this.dataDirectory = dataDirectory;
+    }
+
+    /** The broker that every "loopback" transport in this JVM connects to. */
+    public static LoopbackBroker shared() {
+        return SHARED;
+    }
+
+    /** The broker that every "loopback:{dataDirectory}" transport in this JVM connects to. */
+    public static LoopbackBroker shared(Path dataDirectory) {
+        return SHARED_DURABLE.computeIfAbsent(dataDirectory.toAbsolutePath().normalize(),
+                dir -> new LoopbackBroker(DEFAULT_QUEUE_CAPACITY, dir));
+    }
+
+    /**
+     * Creates the queue unless it already exists. On a durable broker this
+     * reopens the queue's log and requeues the messages that were not acked.
+     */
+    public void provisionQueue(String queueName) {
+        queues.computeIfAbsent(queueName, this::createQueue);
+    }
+
+    public void addSubscription(String queueName, String topicPattern) {
+        Queue queue = queue(queueName);
+        for (Subscription existing : subscriptions) {
+            if (existing.queue == queue && existing.pattern.toString().equals(topicPattern)) {
+                return;
+            }
+        }
+        subscriptions.add(new Subscription(new TopicPattern(topicPattern), queue));
+        routes.clear();
+    }
+
+    /**
+     * Places a copy of the message on every queue subscribed to the topic.
+     *
+     * @param payload owned by the broker from here on; must not be modified
+     * @param sendTimeNanos the publisher's send time, or 0 if unknown; see {@link SendTimestamps}
+     * @return false if any matching queue was full and did not take the message
+     */
+    public boolean publish(String topic, byte[] payload, long sendTimeNanos) {
+        boolean accepted = true;
+        for (Queue queue : route(topic)) {
+            accepted &= queue.offer(topic, payload, sendTimeNanos);
+        }
+        return accepted;
+    }
+
+    /** Whether any queue subscribes to the topic; messages on other topics go nowhere. */
+    public boolean isRouted(String topic) {
+        return route(topic).length > 0;
+    }
+
+    /** Number of messages waiting on the queue, not counting ones delivered but unacked. */
+    public int depth(String queueName) {
+        return queue(queueName).pending.size();
+    }
+
+    Queue queue(String queueName) {
+        Queue queue = queues.get(queueName);
+        if (queue == null) {
+            throw new IllegalArgumentException("Unknown queue: " + queueName);
+        }
+        return queue;
+    }
+
+    private Queue createQueue(String queueName) {
+        if (dataDirectory == null) {
+            return new Queue(queueName, queueCapacity, null);
+        }
+        long start = System.nanoTime();
+        List<LoopbackMessage> recovered = new ArrayList<>();
+        DurableQueueLog log = DurableQueueLog.open(dataDirectory.resolve(queueName),
+                DurableQueueLog.DEFAULT_SEGMENT_SIZE, (offset, topic, payload, sendTimeNanos, redelivered) -> {
+                    LoopbackMessage message = new LoopbackMessage(topic, payload, sendTimeNanos);
+                    message.redelivered = redelivered;
+                    message.logOffset = offset;
+                    recovered.add(message);
+                });
+        Queue queue = new Queue(queueName, queueCapacity, log);
+        for (LoopbackMessage message : recovered) {
+            message.log = log;
+        }
+        queue.pending.addAll(recovered);
+        if (!recovered.isEmpty()) {
+            System.out.printf("Recovered %,d unacked messages for %s in %,d ms%n", recovered.size(), queueName,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        return queue;
+    }
+
+    private Queue[] route(String topic) {
+        Queue[] matched = routes.get(topic);
+        if (matched == null) {
+            matched = match(topic);
+            if (routes.size() >= MAX_CACHED_ROUTES) {
+                routes.clear();
+            }
+            routes.put(topic, matched);
+        }
+        return matched;
+    }
+
+    private Queue[] match(String topic) {
+        List<Queue> matched = new ArrayList<>();
+        for (Subscription subscription : subscriptions) {
+            // A queue gets one copy however many of its subscriptions match
+            if (!matched.contains(subscription.queue) && subscription.pattern.matches(topic)) {
+                matched.add(subscription.queue);
+            }
+        }
+        return matched.isEmpty() ? NO_QUEUES : matched.toArray(NO_QUEUES);
+    }
+
+    private static final class Subscription {
+        final TopicPattern pattern;
+        final Queue queue;
+
+        Subscription(TopicPattern pattern, Queue queue) {
+            this.pattern = pattern;
+            this.queue = queue;
+        }
+    }
+
+    /** A named queue; non-exclusive, so every bound flow takes from the same backlog. */
+    static final class Queue {
+        final String name;
+        final int capacity;
+        final DurableQueueLog log;
+        // Unbounded so redeliveries are never refused; capacity only limits publishes
+        final LinkedBlockingQueue<LoopbackMessage> pending = new LinkedBlockingQueue<>();
+
+        Queue(String name, int capacity, DurableQueueLog log) {
+            this.name = name;
+            this.capacity = capacity;
+            this.log = log;
+        }
+
+        boolean offer(String topic, byte[] payload, long sendTimeNanos) {
+            if (pending.size() >= capacity) {
+                return false;
+            }
+            LoopbackMessage message = new LoopbackMessage(topic, payload, sendTimeNanos);
+            if (log != null) {
+                message.logOffset = log.append(topic, payload, sendTimeNanos);
+                message.log = log;
+            }
+            return pending.offer(message);
+        }
+
+        void redeliver(Set<LoopbackMessage> unacked) {
+            for (LoopbackMessage message : unacked) {
+                message.redelivered = true;
+                pending.offer(message);
+            }
+            unacked.clear();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.solace.practice.transport;
+
+import java.util.Set;
+
+/** One queue's copy of a message published to a {@link LoopbackBroker}. */
+final class LoopbackMessage implements InboundMessage {
+
+    private final String topic;
+    private final byte[] payload;
+    private final long sendTimeNanos;
+    volatile boolean redelivered;
+    // Where a durable queue wrote the message; log is null for in-memory queues
+    DurableQueueLog log;
+    long logOffset;
+    // Set by the flow that delivered the message when it is waiting for an ack
+    private volatile Set<LoopbackMessage> unacked;
+
+    LoopbackMessage(String topic, byte[] payload, long sendTimeNanos) {
+        this.topic = topic;
+        this.payload = payload;
+        this.sendTimeNanos = sendTimeNanos;
+    }
+
+    void awaitAck(Set<LoopbackMessage> unackedByFlow) {
+        unacked = unackedByFlow;
+        unackedByFlow.add(this);
+    }
+
+    /** Called as the message is handed to a consumer. */
+    void dispatched() {
+        if (log != null) {
+            log.markDispatched(logOffset);
+        }
+    }
+
+    @Override
+    public String getTopic() {
+        return topic;
+    }
+
+    @Override
+    public byte[] getPayloadArray() {
+        return payload;
+    }
+
+    @Override
+    public int getPayloadOffset() {
+        return 0;
+    }
+
+    @Override
+    public int getPayloadLength() {
+        return payload.length;
+    }
+
+    @Override
+    public long getSendTimeNanos() {
+        return sendTimeNanos;
+    }
+
+    @Override
+    public boolean isRedelivered() {
+        return redelivered;
+    }
+
+    @Override
+    public void ack() {
+        Set<LoopbackMessage> owner = unacked;
+        if (owner != null) {
+            owner.remove(this);
+            unacked = null;
+        }
+        if (log != null) {
+            log.ack(logOffset);
+        }
+    }
+}
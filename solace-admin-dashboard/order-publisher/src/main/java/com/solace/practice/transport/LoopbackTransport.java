@@ -0,0 +1,273 @@
+package com.solace.practice.transport;
+
+import com.solacesystems.jcsmp.ClosedFacilityException;
+import com.solacesystems.jcsmp.DeliveryMode;
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPSendMultipleEntry;
+import com.solacesystems.jcsmp.JCSMPStreamingPublishCorrelatingEventHandler;
+import com.solacesystems.jcsmp.JCSMPStreamingPublishEventHandler;
+import com.solacesystems.jcsmp.XMLMessage;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link Transport} connected to a {@link LoopbackBroker} in the same JVM.
+ *
+ * Publishing copies the message's payload and routes it synchronously, so
+ * the caller may reuse the message as soon as send() returns, as with
+ * DIRECT messages on a real session. PERSISTENT messages are acknowledged
+ * (or rejected, if a queue is full) before send() returns, on the calling
+ * thread, through the same callbacks JCSMP uses.
+ *
+ * Each flow has a dispatcher thread that takes messages off the queue in
+ * batches and calls the handler for each.
+ */
+public class LoopbackTransport implements Transport {
+
+    private static final int DISPATCH_BATCH = 256;
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final LoopbackBroker broker;
+    private final List<Publisher> publishers = new CopyOnWriteArrayList<>();
+    private final List<Flow> flows = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public LoopbackTransport(LoopbackBroker broker) {
+        this.broker = broker;
+    }
+
+    @Override
+    public TransportPublisher createPublisher(JCSMPStreamingPublishEventHandler handler) throws JCSMPException {
+        checkOpen();
+        Publisher publisher = new Publisher(handler);
+        publishers.add(publisher);
+        return publisher;
+    }
+
+    @Override
+    public void provisionQueue(String queueName) throws JCSMPException {
+        checkOpen();
+        try {
+            broker.provisionQueue(queueName);
+        } catch (UncheckedIOException e) {
+            throw new JCSMPException(e.getMessage(), e.getCause());
+        }
+    }
+
+    @Override
+    public void addSubscription(String queueName, String topicPattern) throws JCSMPException {
+        checkOpen();
+        try {
+            broker.addSubscription(queueName, topicPattern);
+        } catch (IllegalArgumentException e) {
+            throw new JCSMPException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public TransportFlow createFlow(String queueName, boolean clientAck, InboundHandler handler)
+            throws JCSMPException {
+        checkOpen();
+        LoopbackBroker.Queue queue;
+        try {
+            queue = broker.queue(queueName);
+        } catch (IllegalArgumentException e) {
+            throw new JCSMPException(e.getMessage(), e);
+        }
+        Flow flow = new Flow(queue, clientAck, handler);
+        flows.add(flow);
+        return flow;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        for (Flow flow : flows) {
+            flow.close();
+        }
+        for (Publisher publisher : publishers) {
+            publisher.close();
+        }
+    }
+
+    private void checkOpen() throws JCSMPException {
+        if (closed) {
+            throw new ClosedFacilityException("Transport is closed");
+        }
+    }
+
+    private final class Publisher implements TransportPublisher {
+
+        private final JCSMPStreamingPublishEventHandler handler;
+        private volatile boolean producerClosed;
+
+        Publisher(JCSMPStreamingPublishEventHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void send(XMLMessage message, Destination destination) throws JCSMPException {
+            if (producerClosed) {
+                throw new ClosedFacilityException("Producer is closed");
+            }
+            String topic = destination.getName();
+            // A message no queue subscribes to is dropped, so there is nothing to copy
+            boolean accepted = true;
+            if (broker.isRouted(topic)) {
+                int length = message.getAttachmentContentLength();
+                byte[] payload = new byte[length];
+                if (length > 0) {
+                    message.readAttachmentBytes(0, payload, 0, length);
+                }
+                try {
+                    accepted = broker.publish(topic, payload, SendTimestamps.read(message));
+                } catch (UncheckedIOException e) {
+                    throw new JCSMPException(e.getMessage(), e.getCause());
+                }
+            }
+
+            if (message.getDeliveryMode() == DeliveryMode.DIRECT) {
+                // DIRECT messages that find a full queue are discarded silently, as on the broker
+                return;
+            }
+            if (accepted) {
+                acknowledge(message);
+            } else {
+                reject(message, new JCSMPException("Queue full for topic " + destination.getName()));
+            }
+        }
+
+        @Override
+        public int sendMultiple(JCSMPSendMultipleEntry[] entries, int offset, int length) throws JCSMPException {
+            for (int i = offset; i < offset + length; i++) {
+                send(entries[i].getMessage(), entries[i].getDestination());
+            }
+            return length;
+        }
+
+        @Override
+        public void close() {
+            producerClosed = true;
+        }
+
+        private void acknowledge(XMLMessage message) {
+            if (handler instanceof JCSMPStreamingPublishCorrelatingEventHandler) {
+                ((JCSMPStreamingPublishCorrelatingEventHandler) handler).responseReceivedEx(message.getCorrelationKey());
+            } else {
+                handler.responseReceived(message.getMessageId());
+            }
+        }
+
+        private void reject(XMLMessage message, JCSMPException cause) {
+            long now = System.currentTimeMillis();
+            if (handler instanceof JCSMPStreamingPublishCorrelatingEventHandler) {
+                ((JCSMPStreamingPublishCorrelatingEventHandler) handler)
+                        .handleErrorEx(message.getCorrelationKey(), cause, now);
+            } else {
+                handler.handleError(message.getMessageId(), cause, now);
+            }
+        }
+    }
+
+    private static final class Flow implements TransportFlow {
+
+        private final LoopbackBroker.Queue queue;
+        private final boolean clientAck;
+        private final InboundHandler handler;
+        private final Set<LoopbackMessage> unacked = ConcurrentHashMap.newKeySet();
+        private final Thread dispatcher;
+        private volatile boolean started;
+        private volatile boolean running = true;
+
+        Flow(LoopbackBroker.Queue queue, boolean clientAck, InboundHandler handler) {
+            this.queue = queue;
+            this.clientAck = clientAck;
+            this.handler = handler;
+            this.dispatcher = new Thread(this::dispatchLoop, "loopback-flow-" + queue.name);
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+
+        @Override
+        public void start() throws JCSMPException {
+            if (!running) {
+                throw new ClosedFacilityException("Flow is closed");
+            }
+            started = true;
+            LockSupport.unpark(dispatcher);
+        }
+
+        /** Takes effect after the batch being dispatched, if any, has been delivered. */
+        @Override
+        public void stop() {
+            started = false;
+        }
+
+        @Override
+        public void close() {
+            if (!running) {
+                return;
+            }
+            started = false;
+            running = false;
+            LockSupport.unpark(dispatcher);
+            if (Thread.currentThread() != dispatcher) {
+                try {
+                    dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            queue.redeliver(unacked);
+        }
+
+        private void dispatchLoop() {
+            List<LoopbackMessage> batch = new ArrayList<>(DISPATCH_BATCH);
+            while (running) {
+                if (!started) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(IDLE_POLL_MILLIS));
+                    continue;
+                }
+                LoopbackMessage first;
+                try {
+                    first = queue.pending.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.pending.drainTo(batch, DISPATCH_BATCH - 1);
+                for (LoopbackMessage message : batch) {
+                    deliver(message);
+                }
+                batch.clear();
+            }
+        }
+
+        private void deliver(LoopbackMessage message) {
+            if (clientAck) {
+                message.awaitAck(unacked);
+            }
+            message.dispatched();
+            try {
+                handler.onMessage(message);
+            } catch (RuntimeException e) {
+                // Left unacked, so a client-ack message is redelivered when the flow closes
+                handler.onException(new JCSMPException("Message handler failed", e));
+                return;
+            }
+            if (!clientAck) {
+                message.ack();
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.solace.practice.transport;
+
+import com.solacesystems.jcsmp.SDTException;
+import com.solacesystems.jcsmp.SDTMap;
+import com.solacesystems.jcsmp.XMLMessage;
+import java.time.Instant;
+
+/**
+ * The time a message was published, carried with it so consumers can
+ * measure publish-to-consume latency.
+ *
+ * The broker's sender timestamp only has millisecond resolution, so the
+ * publisher puts nanoseconds since the epoch in the message's user data, as
+ * 8 big-endian bytes. Epoch time rather than System.nanoTime() lets the
+ * consumer be another process; across hosts the figures are only as good
+ * as the clock synchronization.
+ *
+ * User data rather than a user property, because SDTMap.putLong boxes the
+ * value and allocates on every send, while a message's user data array can
+ * be rewritten in place. Messages from publishers that still set the
+ * {@link #PROPERTY} user property are read as well.
+ */
+public final class SendTimestamps {
+
+    /** Name of the user property older publishers set; a long of epoch nanoseconds. */
+    public static final String PROPERTY = "sendTimeNanos";
+
+    private static final int SIZE = 8;
+    private static final long REANCHOR_NANOS = 1_000_000_000L;
+
+    // Epoch nanoseconds minus System.nanoTime(), re-read from the wall clock
+    // every REANCHOR_NANOS so that adjustments such as NTP's are followed
+    private static volatile long epochOffset = epochNanos() - System.nanoTime();
+    private static volatile long reanchorAt = System.nanoTime() + REANCHOR_NANOS;
+
+    private SendTimestamps() {}
+
+    /**
+     * Current wall-clock time in epoch nanoseconds. It is System.nanoTime()
+     * plus an offset taken from the wall clock once a second, so only that
+     * once-a-second call builds an Instant; every other call allocates
+     * nothing, whatever the JIT does.
+     */
+    public static long now() {
+        long nanoTime = System.nanoTime();
+        if (nanoTime - reanchorAt >= 0) {
+            // Racing threads may both re-anchor; either offset is as good
+            reanchorAt = nanoTime + REANCHOR_NANOS;
+            epochOffset = epochNanos() - System.nanoTime();
+        }
+        return nanoTime + epochOffset;
+    }
+
+    private static long epochNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    /**
+     * Sets the send time on a message, replacing any user data it had. The
+     * array is reused from one send to the next, so stamping a reused
+     * message allocates nothing.
+     */
+    public static void stamp(XMLMessage message, long epochNanos) {
+        byte[] data = message.getUserData();
+        if (data == null || data.length != SIZE) {
+            data = new byte[SIZE];
+        }
+        for (int i = SIZE - 1; i >= 0; i--) {
+            data[i] = (byte) epochNanos;
+            epochNanos >>>= 8;
+        }
+        message.setUserData(data);
+    }
+
+    /** The send time set by {@link #stamp}, or 0 if the message has none. */
+    public static long read(XMLMessage message) {
+        byte[] data = message.getUserData();
+        if (data != null && data.length == SIZE) {
+            long epochNanos = 0;
+            for (int i = 0; i < SIZE; i++) {
+                epochNanos = (epochNanos << 8) | (data[i] & 0xFF);
+            }
+            return epochNanos;
+        }
+        SDTMap properties = message.getProperties();
+        try {
+            if (properties == null || !properties.containsKey(PROPERTY)) {
+                return 0;
+            }
+            return properties.getLong(PROPERTY);
+        } catch (SDTException e) {
+            // Set by something else with another type
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.solace.practice.transport;
+
+import java.util.Arrays;
+
+/**
+ * A Solace topic subscription such as {@code orders/v1/US-*}{@code /CREATED/>}.
+ *
+ * Levels are separated by '/'. A level of {@code *} matches any one level and
+ * {@code prefix*} any level starting with the prefix. A final level of
+ * {@code >} matches one or more remaining levels. Anything else must match
+ * the level exactly.
+ *
+ * Matching walks the topic in place and does not allocate.
+ */
+public final class TopicPattern {
+
+    private final String pattern;
+    private final String[] levels;
+    private final boolean trailingGreaterThan;
+
+    public TopicPattern(String pattern) {
+        if (pattern == null || pattern.isEmpty()) {
+            throw new IllegalArgumentException("Topic pattern must not be empty");
+        }
+        String[] parts = pattern.split("/", -1);
+        for (int i = 0; i < parts.length; i++) {
+            String level = parts[i];
+            int star = level.indexOf('*');
+            if (star >= 0 && star != level.length() - 1) {
+                throw new IllegalArgumentException("'*' may only end a level: " + pattern);
+            }
+            if (level.equals(">") && i != parts.length - 1) {
+                throw new IllegalArgumentException("'>' may only be the last level: " + pattern);
+            }
+        }
+        this.pattern = pattern;
+        this.trailingGreaterThan = parts[parts.length - 1].equals(">");
+        this.levels = trailingGreaterThan ? Arrays.copyOf(parts, parts.length - 1) : parts;
+    }
+
+    public boolean matches(String topic) {
+        int start = 0;
+        for (String level : levels) {
+            if (start > topic.length()) {
+                return false;
+            }
+            int end = topic.indexOf('/', start);
+            if (end < 0) {
+                end = topic.length();
+            }
+            if (!matchesLevel(level, topic, start, end)) {
+                return false;
+            }
+            start = end + 1;
+        }
+        // '>' needs at least one more level; otherwise the topic must be used up
+        return trailingGreaterThan ? start < topic.length() : start == topic.length() + 1;
+    }
+
+    private static boolean matchesLevel(String level, String topic, int start, int end) {
+        int length = level.length();
+        if (length > 0 && level.charAt(length - 1) == '*') {
+            int prefix = length - 1;
+            return end - start >= prefix && topic.regionMatches(start, level, 0, prefix);
+        }
+        return end - start == length && topic.regionMatches(start, level, 0, length);
+    }
+
+    @Override
+    public String toString() {
+        return pattern;
+    }
+}
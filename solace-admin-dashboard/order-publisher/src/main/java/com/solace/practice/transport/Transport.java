@@ -0,0 +1,40 @@
+package com.solace.practice.transport;
+
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPStreamingPublishEventHandler;
+
+/**
+ * The broker operations the publisher and the dashboard actually use,
+ * behind one interface so they can run against a real Solace broker
+ * ({@link JcsmpTransport}) or entirely in-process ({@link LoopbackTransport}).
+ *
+ * One Transport corresponds to one JCSMPSession. Use {@link Transports#connect}
+ * to get one.
+ */
+public interface Transport extends AutoCloseable {
+
+    /**
+     * Creates a producer. For PERSISTENT messages the handler receives the
+     * broker's acks and rejections, exactly as with JCSMP.
+     */
+    TransportPublisher createPublisher(JCSMPStreamingPublishEventHandler handler) throws JCSMPException;
+
+    /** Creates the queue if it does not exist yet. */
+    void provisionQueue(String queueName) throws JCSMPException;
+
+    /** Routes messages published on topics matching {@code topicPattern} (with * and >) into the queue. */
+    void addSubscription(String queueName, String topicPattern) throws JCSMPException;
+
+    /**
+     * Binds a consumer flow to a queue. The flow is created stopped; call
+     * {@link TransportFlow#start()} to begin delivery to the handler.
+     *
+     * @param clientAck if true, each message stays on the queue until
+     *                  {@link InboundMessage#ack()} is called; otherwise it
+     *                  is acknowledged on delivery
+     */
+    TransportFlow createFlow(String queueName, boolean clientAck, InboundHandler handler) throws JCSMPException;
+
+    @Override
+    void close();
+}
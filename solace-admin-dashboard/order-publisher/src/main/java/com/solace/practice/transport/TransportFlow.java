@@ -0,0 +1,15 @@
+package com.solace.practice.transport;
+
+import com.solacesystems.jcsmp.JCSMPException;
+
+/** A consumer bound to a queue; mirrors FlowReceiver. */
+public interface TransportFlow {
+
+    void start() throws JCSMPException;
+
+    /** Pauses delivery; messages stay on the queue. */
+    void stop();
+
+    /** Unbinds the flow. Messages delivered but not yet acked are redelivered. */
+    void close();
+}
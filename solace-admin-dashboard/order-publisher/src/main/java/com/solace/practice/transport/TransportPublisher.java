@@ -0,0 +1,17 @@
+package com.solace.practice.transport;
+
+import com.solacesystems.jcsmp.Destination;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPSendMultipleEntry;
+import com.solacesystems.jcsmp.XMLMessage;
+
+/** The send side of a {@link Transport}; mirrors XMLMessageProducer. */
+public interface TransportPublisher {
+
+    void send(XMLMessage message, Destination destination) throws JCSMPException;
+
+    /** Sends entries[offset .. offset+length) and returns how many were accepted. */
+    int sendMultiple(JCSMPSendMultipleEntry[] entries, int offset, int length) throws JCSMPException;
+
+    void close();
+}
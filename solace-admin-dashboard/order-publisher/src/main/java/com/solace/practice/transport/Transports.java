@@ -0,0 +1,37 @@
+package com.solace.practice.transport;
+
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.JCSMPProperties;
+import com.solacesystems.jcsmp.JCSMPSession;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/** Opens a {@link Transport} for the host named in the session properties. */
+public final class Transports {
+
+    /** Host name that selects the in-process broker instead of a real one. */
+    public static final String LOOPBACK_HOST = "loopback";
+
+    private Transports() {}
+
+    /**
+     * Connects to JCSMPProperties.HOST. A host of "loopback" connects to this
+     * JVM's shared in-memory {@link LoopbackBroker}; "loopback:{directory}"
+     * to a shared loopback broker whose queues are durable and kept in that
+     * directory.
+     */
+    public static Transport connect(JCSMPProperties properties) throws JCSMPException {
+        String host = properties.getStringProperty(JCSMPProperties.HOST);
+        if (LOOPBACK_HOST.equals(host)) {
+            return new LoopbackTransport(LoopbackBroker.shared());
+        }
+        if (host != null && host.startsWith(LOOPBACK_HOST + ":")) {
+            Path dataDirectory = Paths.get(host.substring(LOOPBACK_HOST.length() + 1));
+            return new LoopbackTransport(LoopbackBroker.shared(dataDirectory));
+        }
+        JCSMPSession session = JCSMPFactory.onlyInstance().createSession(properties);
+        session.connect();
+        return new JcsmpTransport(session);
+    }
+}
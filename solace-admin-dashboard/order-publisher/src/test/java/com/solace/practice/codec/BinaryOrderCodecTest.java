@@ -0,0 +1,113 @@
+package com.solace.practice.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.solace.practice.model.Order;
+import com.solace.practice.model.OrderStatus;
+import com.solace.practice.publisher.OrderGenerator;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class BinaryOrderCodecTest {
+
+    private final BinaryOrderCodec codec = new BinaryOrderCodec();
+
+    @Test
+    void decodesWhatItEncodes() {
+        OrderGenerator generator = new OrderGenerator(new SplittableRandom(11));
+        for (int i = 0; i < 10_000; i++) {
+            Order order = generator.next();
+
+            Order decoded = roundTrip(order);
+
+            assertSameOrder(order, decoded);
+        }
+    }
+
+    @Test
+    void keepsNonAsciiIdsAndExtremeValues() {
+        Order order = order("3f2504e0-4f89-11d3-9a0c-0305e82c3301", "C\u00dcST-\u65e5\u672c-1", OrderStatus.CANCELLED);
+        order.setQuantity(Integer.MAX_VALUE);
+        order.setTotalAmount(new BigDecimal("-12345678901.123456"));
+        order.setCreatedAt(LocalDateTime.of(1969, 12, 31, 23, 59, 59, 999_999_000));
+
+        assertSameOrder(order, roundTrip(order));
+    }
+
+    @Test
+    void readsTheOrderKeyWithoutDecoding() {
+        Order order = order("3f2504e0-4f89-11d3-9a0c-0305e82c3301", "C-1", OrderStatus.PAID);
+        int length = codec.encode(order);
+
+        assertEquals(OrderKeys.of(order.getOrderId()), codec.orderKey(codec.buffer(), 0, length));
+    }
+
+    @Test
+    void rejectsOrdersTheLayoutCannotHold() {
+        assertThrows(IllegalArgumentException.class,
+                () -> codec.encode(order("not-a-uuid", "C-1", OrderStatus.PAID)));
+        Order unknownRegion = order("3f2504e0-4f89-11d3-9a0c-0305e82c3301", "C-1", OrderStatus.PAID);
+        unknownRegion.setRegion("MARS");
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(unknownRegion));
+        Order noStatus = order("3f2504e0-4f89-11d3-9a0c-0305e82c3301", "C-1", null);
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(noStatus));
+        Order longId = order("3f2504e0-4f89-11d3-9a0c-0305e82c3301", "C".repeat(256), OrderStatus.PAID);
+        assertThrows(IllegalArgumentException.class, () -> codec.encode(longId));
+    }
+
+    @Test
+    void rejectsDamagedPayloads() {
+        int length = codec.encode(order("3f2504e0-4f89-11d3-9a0c-0305e82c3301", "C-1", OrderStatus.PAID));
+        byte[] payload = Arrays.copyOf(codec.buffer(), length);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(payload, 0, length - 1), "truncated");
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(payload, 0, 20), "truncated header");
+        for (int field : new int[] {0, 17, 18, 19}) {
+            for (int value : new int[] {0x7F, 0x80, 0xFF}) {
+                byte[] damaged = payload.clone();
+                damaged[field] = (byte) value;
+                assertThrows(IllegalArgumentException.class, () -> codec.decode(damaged, 0, length),
+                        "byte " + field + " = " + value);
+            }
+        }
+    }
+
+    @Test
+    void decodesFromAnOffset() {
+        Order order = order("3f2504e0-4f89-11d3-9a0c-0305e82c3301", "C-1", OrderStatus.SHIPPED);
+        int length = codec.encode(order);
+        byte[] framed = new byte[length + 10];
+        System.arraycopy(codec.buffer(), 0, framed, 7, length);
+
+        assertSameOrder(order, codec.decode(framed, 7, length));
+    }
+
+    private Order roundTrip(Order order) {
+        int length = codec.encode(order);
+        return codec.decode(Arrays.copyOf(codec.buffer(), length), 0, length);
+    }
+
+    private static Order order(String orderId, String customerId, OrderStatus status) {
+        return new Order(orderId, customerId, "PROD-7", 3, new BigDecimal("149.90"), status, "EU", "HIGH",
+                LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123_456_789));
+    }
+
+    /** The layout keeps amounts to millionths and times to microseconds. */
+    static void assertSameOrder(Order expected, Order actual) {
+        assertEquals(expected.getOrderId(), actual.getOrderId());
+        assertEquals(expected.getCustomerId(), actual.getCustomerId());
+        assertEquals(expected.getProductId(), actual.getProductId());
+        assertEquals(expected.getQuantity(), actual.getQuantity());
+        assertEquals(0, expected.getTotalAmount().compareTo(actual.getTotalAmount()),
+                expected.getTotalAmount() + " vs " + actual.getTotalAmount());
+        assertEquals(expected.getStatus(), actual.getStatus());
+        assertEquals(expected.getRegion(), actual.getRegion());
+        assertEquals(expected.getPriority(), actual.getPriority());
+        assertEquals(expected.getCreatedAt().truncatedTo(ChronoUnit.MICROS), actual.getCreatedAt());
+    }
+}
@@ -0,0 +1,72 @@
+package com.solace.practice.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.solace.practice.model.Order;
+import com.solace.practice.publisher.OrderGenerator;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class JsonOrderCodecTest {
+
+    private final JsonOrderCodec codec = new JsonOrderCodec();
+
+    @Test
+    void decodesWhatItEncodes() {
+        OrderGenerator generator = new OrderGenerator(new SplittableRandom(13));
+        for (int i = 0; i < 2000; i++) {
+            Order order = generator.next();
+            byte[] payload = encoded(order);
+
+            Order decoded = codec.decode(payload, 0, payload.length);
+
+            assertEquals(order.getOrderId(), decoded.getOrderId());
+            assertEquals(order.getCustomerId(), decoded.getCustomerId());
+            assertEquals(order.getProductId(), decoded.getProductId());
+            assertEquals(order.getQuantity(), decoded.getQuantity());
+            assertEquals(0, order.getTotalAmount().compareTo(decoded.getTotalAmount()));
+            assertEquals(order.getStatus(), decoded.getStatus());
+            assertEquals(order.getRegion(), decoded.getRegion());
+            assertEquals(order.getPriority(), decoded.getPriority());
+            assertEquals(order.getCreatedAt(), decoded.getCreatedAt());
+        }
+    }
+
+    @Test
+    void readsTheOrderKeyWithoutDecoding() {
+        Order order = new OrderGenerator(new SplittableRandom(14)).next();
+        byte[] payload = encoded(order);
+
+        assertEquals(OrderKeys.of(order.getOrderId()), codec.orderKey(payload, 0, payload.length));
+    }
+
+    @Test
+    void fallsBackToDecodingForAnEscapedOrderId() {
+        byte[] payload = "{\"orderId\":\"a\\u0062c\",\"quantity\":1}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(OrderKeys.of("abc"), codec.orderKey(payload, 0, payload.length));
+    }
+
+    @Test
+    void rejectsInvalidJson() {
+        byte[] payload = "{\"orderId\":".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(payload, 0, payload.length));
+    }
+
+    @Test
+    void picksTheCodecFromTheTopicVersion() {
+        assertEquals(JsonOrderCodec.class, OrderCodecs.forTopic("order/v1/EU/PAID/HIGH").getClass());
+        assertEquals(BinaryOrderCodec.class, OrderCodecs.forTopic("order/v2/EU/PAID/HIGH").getClass());
+        assertThrows(IllegalArgumentException.class, () -> OrderCodecs.forTopic("order/v9/EU/PAID/HIGH"));
+        assertThrows(IllegalArgumentException.class, () -> OrderCodecs.forTopic("order"));
+    }
+
+    private byte[] encoded(Order order) {
+        int length = codec.encode(order);
+        return Arrays.copyOf(codec.buffer(), length);
+    }
+}
@@ -0,0 +1,61 @@
+package com.solace.practice.codec;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.solace.practice.model.Order;
+import com.solace.practice.model.OrderStatus;
+import com.solace.practice.publisher.OrderGenerator;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class OrderJsonWriterTest {
+
+    private static final ObjectMapper JACKSON = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final OrderJsonWriter writer = new OrderJsonWriter(16);
+
+    @Test
+    void writesTheSameDocumentAsJackson() throws Exception {
+        OrderGenerator generator = new OrderGenerator(new SplittableRandom(12));
+        for (int i = 0; i < 2000; i++) {
+            assertWrittenLikeJackson(generator.next());
+        }
+    }
+
+    @Test
+    void escapesLikeJackson() throws Exception {
+        assertWrittenLikeJackson(order("quote \" backslash \\ slash / tab \t newline \n return \r"
+                + " backspace \b feed \f bell \u0007 escape \u001b delete \u007f"));
+        assertWrittenLikeJackson(order("CÜST-日本-🚀"));
+    }
+
+    @Test
+    void writesNullsAndEdgeValuesLikeJackson() throws Exception {
+        assertWrittenLikeJackson(new Order(null, null, null, 0, null, null, null, null, null));
+        Order order = order("3f2504e0-4f89-11d3-9a0c-0305e82c3301");
+        order.setQuantity(-42);
+        order.setTotalAmount(new BigDecimal("1E+3"));
+        order.setCreatedAt(LocalDateTime.of(-5, 1, 1, 0, 0));
+        assertWrittenLikeJackson(order);
+        order.setCreatedAt(LocalDateTime.of(2024, 1, 1, 0, 0, 0, 1));
+        assertWrittenLikeJackson(order);
+    }
+
+    private void assertWrittenLikeJackson(Order order) throws Exception {
+        String expected = JACKSON.writeValueAsString(order);
+        int length = writer.write(order);
+        byte[] written = Arrays.copyOf(writer.buffer(), length);
+
+        assertArrayEquals(JACKSON.writeValueAsBytes(order), written, expected);
+    }
+
+    private static Order order(String orderId) {
+        return new Order(orderId, "CUST-1", "PROD-7", 3, new BigDecimal("149.90"), OrderStatus.PAID, "EU", "HIGH",
+                LocalDateTime.of(2024, 5, 6, 7, 8, 9, 123_456_789));
+    }
+}
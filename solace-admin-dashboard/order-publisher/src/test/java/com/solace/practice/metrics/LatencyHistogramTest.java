@@ -0,0 +1,147 @@
+package com.solace.practice.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+    private static final double[] PERCENTILES = {0, 1, 10, 25, 50, 75, 90, 99, 99.9, 99.99, 100};
+
+    @Test
+    void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.recordValue(value);
+        }
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.getTotalCount());
+        assertEquals(1, snapshot.getValueAtPercentile(0));
+        assertEquals(50, snapshot.getValueAtPercentile(50));
+        assertEquals(99, snapshot.getValueAtPercentile(99));
+        assertEquals(100, snapshot.getMaxValue());
+    }
+
+    @Test
+    void percentilesAreWithinOneSixtyFourthOfTheExactValue() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(5);
+        long[] values = new long[200_000];
+        for (int i = 0; i < values.length; i++) {
+            // Spread over nine decades, like latencies from nanoseconds to seconds
+            values[i] = (long) Math.pow(10, random.nextDouble() * 9);
+            histogram.recordValue(values[i]);
+        }
+        Arrays.sort(values);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        for (double percentile : PERCENTILES) {
+            long exact = values[(int) Math.max(0, Math.ceil(percentile / 100 * values.length) - 1)];
+            long reported = snapshot.getValueAtPercentile(percentile);
+            assertTrue(reported >= exact && reported - exact <= exact / 64,
+                    "p" + percentile + " reported " + reported + " for " + exact);
+        }
+        assertTrue(snapshot.getMaxValue() >= values[values.length - 1]);
+    }
+
+    @Test
+    void mergedSnapshotsMatchRecordingEverythingInOne() {
+        LatencyHistogram all = new LatencyHistogram();
+        LatencyHistogram[] regions = {new LatencyHistogram(), new LatencyHistogram(), new LatencyHistogram()};
+        SplittableRandom random = new SplittableRandom(6);
+        for (int i = 0; i < 30_000; i++) {
+            // Each region has its own scale, so the merged percentiles differ from every part
+            int region = i % regions.length;
+            long value = (long) ((region + 1) * 1000 * (1 + random.nextDouble()));
+            regions[region].recordValue(value);
+            all.recordValue(value);
+        }
+
+        LatencyHistogram.Snapshot merged = regions[0].snapshot().plus(regions[1].snapshot()).plus(regions[2].snapshot());
+
+        assertSameCounts(all.snapshot(), merged);
+    }
+
+    @Test
+    void differenceOfSnapshotsIsTheInterval() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        LatencyHistogram interval = new LatencyHistogram();
+        for (int i = 0; i < 1000; i++) {
+            histogram.recordValue(1_000_000 + i);
+        }
+        LatencyHistogram.Snapshot before = histogram.snapshot();
+        for (int i = 0; i < 1000; i++) {
+            histogram.recordValue(500 + i);
+            interval.recordValue(500 + i);
+        }
+
+        assertSameCounts(interval.snapshot(), histogram.snapshot().minus(before));
+    }
+
+    @Test
+    void restoresWrittenSnapshots() throws IOException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 10_000; i++) {
+            histogram.recordValue(i * 7919L);
+        }
+        LatencyHistogram restored = new LatencyHistogram();
+
+        restored.add(LatencyHistogram.Snapshot.readFrom(ByteBuffer.wrap(saved(histogram.snapshot()))));
+
+        assertSameCounts(histogram.snapshot(), restored.snapshot());
+    }
+
+    @Test
+    void rejectsBucketsOutOfRange() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(1);
+            out.writeShort(0xFFFF);
+            out.writeLong(1);
+        }
+
+        assertThrows(IllegalArgumentException.class,
+                () -> LatencyHistogram.Snapshot.readFrom(ByteBuffer.wrap(bytes.toByteArray())));
+    }
+
+    @Test
+    void clampsValuesOutsideTheTrackedRange() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.recordValue(-5);
+        histogram.recordValue(Long.MAX_VALUE);
+
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(0, snapshot.getValueAtPercentile(50));
+        assertEquals((1L << 47) - 1, snapshot.getMaxValue(), "the top bucket");
+        assertEquals(0, new LatencyHistogram().snapshot().getValueAtPercentile(99));
+    }
+
+    private static void assertSameCounts(LatencyHistogram.Snapshot expected, LatencyHistogram.Snapshot actual) {
+        assertEquals(expected.getTotalCount(), actual.getTotalCount());
+        for (double percentile : PERCENTILES) {
+            assertEquals(expected.getValueAtPercentile(percentile), actual.getValueAtPercentile(percentile),
+                    "p" + percentile);
+        }
+        assertEquals(expected.getMaxValue(), actual.getMaxValue());
+    }
+
+    private static byte[] saved(LatencyHistogram.Snapshot snapshot) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            snapshot.writeTo(out);
+        }
+        return bytes.toByteArray();
+    }
+}
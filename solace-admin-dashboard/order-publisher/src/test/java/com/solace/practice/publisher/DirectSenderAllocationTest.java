@@ -0,0 +1,83 @@
+package com.solace.practice.publisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import com.solace.practice.codec.OrderJsonWriter;
+import com.solace.practice.model.Order;
+import com.solace.practice.transport.LoopbackBroker;
+import com.solace.practice.transport.LoopbackTransport;
+import com.solace.practice.transport.TransportPublisher;
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPStreamingPublishEventHandler;
+import com.solacesystems.jcsmp.Topic;
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Serializing an order with OrderJsonWriter and sending it with
+ * DirectSender must not allocate once warmed up.
+ *
+ * The stand-in producer is a loopback transport whose broker has no queues,
+ * so messages are dropped without the copy a subscribed queue would need.
+ * Orders are generated up front, since OrderGenerator.next() allocates.
+ */
+class DirectSenderAllocationTest {
+
+    private static final int MESSAGES = 1_000_000;
+    private static final int WARMUP = 200_000;
+    private static final int DISTINCT_ORDERS = 1024;
+
+    @Test
+    void publishingAllocatesNothingPerMessage() throws JCSMPException {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported(), "JVM cannot count allocated bytes");
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        OrderGenerator generator = new OrderGenerator(new SplittableRandom(42));
+        TopicCache topicCache = new TopicCache("order/v1");
+        Order[] orders = new Order[DISTINCT_ORDERS];
+        Topic[] topics = new Topic[DISTINCT_ORDERS];
+        for (int i = 0; i < DISTINCT_ORDERS; i++) {
+            orders[i] = generator.next();
+            topics[i] = topicCache.get(orders[i]);
+        }
+
+        LoopbackTransport transport = new LoopbackTransport(new LoopbackBroker(1024));
+        try {
+            TransportPublisher producer = transport.createPublisher(new JCSMPStreamingPublishEventHandler() {
+                @Override
+                public void responseReceived(String messageID) {
+                }
+
+                @Override
+                public void handleError(String messageID, JCSMPException cause, long timestamp) {
+                }
+            });
+            DirectSender sender = new DirectSender(producer);
+            OrderJsonWriter writer = new OrderJsonWriter();
+
+            publish(sender, writer, orders, topics, WARMUP);
+            long threadId = Thread.currentThread().getId();
+            long before = threads.getThreadAllocatedBytes(threadId);
+            publish(sender, writer, orders, topics, MESSAGES);
+            long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+            // Any allocation per message is at least 16 bytes, so this allows only one-off ones
+            assertEquals(0, allocated / MESSAGES,
+                    "allocated " + allocated + " bytes over " + MESSAGES + " messages");
+        } finally {
+            transport.close();
+        }
+    }
+
+    private static void publish(DirectSender sender, OrderJsonWriter writer, Order[] orders, Topic[] topics,
+                                int count) throws JCSMPException {
+        for (int i = 0; i < count; i++) {
+            int index = i & (DISTINCT_ORDERS - 1);
+            sender.send(writer.buffer(), writer.write(orders[index]), topics[index]);
+        }
+    }
+}
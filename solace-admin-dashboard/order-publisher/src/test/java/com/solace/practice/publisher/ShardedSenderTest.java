@@ -0,0 +1,87 @@
+package com.solace.practice.publisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.solacesystems.jcsmp.JCSMPException;
+import com.solacesystems.jcsmp.JCSMPFactory;
+import com.solacesystems.jcsmp.Topic;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class ShardedSenderTest {
+
+    private static final Topic TOPIC = JCSMPFactory.onlyInstance().createTopic("order/v1/test");
+
+    @Test
+    void sendsEveryEventOfAnOrderThroughOneShardInOrder() throws JCSMPException {
+        int shardCount = 4;
+        List<List<String>> sent = new ArrayList<>();
+        MessageSender[] shards = new MessageSender[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            List<String> payloads = new ArrayList<>();
+            sent.add(payloads);
+            shards[i] = (payload, length, destination) ->
+                    payloads.add(new String(payload, 0, length, StandardCharsets.UTF_8));
+        }
+        ShardedSender sender = new ShardedSender(shards);
+        Random random = new Random(3);
+        List<String> orderIds = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            orderIds.add(new UUID(random.nextLong(), random.nextLong()).toString());
+        }
+
+        for (int event = 0; event < 5; event++) {
+            for (String orderId : orderIds) {
+                byte[] payload = (orderId + "#" + event).getBytes(StandardCharsets.UTF_8);
+                sender.send(orderId, payload, payload.length, TOPIC);
+            }
+        }
+
+        Map<String, Integer> shardOf = new HashMap<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            Map<String, Integer> lastEvent = new HashMap<>();
+            for (String payload : sent.get(shard)) {
+                String orderId = payload.substring(0, payload.indexOf('#'));
+                int event = Integer.parseInt(payload.substring(payload.indexOf('#') + 1));
+                Integer previousShard = shardOf.put(orderId, shard);
+                assertTrue(previousShard == null || previousShard == shard, orderId + " went to two shards");
+                Integer previousEvent = lastEvent.put(orderId, event);
+                assertEquals(previousEvent == null ? 0 : previousEvent + 1, event, orderId + " out of order");
+            }
+        }
+        assertEquals(orderIds.size(), shardOf.size());
+    }
+
+    @Test
+    void spreadsOrdersEvenlyOverTheShards() {
+        int shardCount = 8;
+        int orders = 80_000;
+        int[] counts = new int[shardCount];
+        Random random = new Random(5);
+        for (int i = 0; i < orders; i++) {
+            int shard = ShardedSender.shardFor(new UUID(random.nextLong(), random.nextLong()).toString(), shardCount);
+            counts[shard]++;
+        }
+
+        for (int count : counts) {
+            assertTrue(Math.abs(count - orders / shardCount) < orders / shardCount / 10, "shard got " + count);
+        }
+    }
+
+    @Test
+    void shardIsInRangeForAnyHash() {
+        // "polygenelubricants" hashes to Integer.MIN_VALUE
+        assertEquals(Integer.MIN_VALUE, "polygenelubricants".hashCode());
+        for (int shardCount = 1; shardCount <= 5; shardCount++) {
+            int shard = ShardedSender.shardFor("polygenelubricants", shardCount);
+            assertTrue(shard >= 0 && shard < shardCount);
+        }
+    }
+}
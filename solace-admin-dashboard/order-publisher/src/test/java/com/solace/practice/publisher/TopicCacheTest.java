@@ -0,0 +1,61 @@
+package com.solace.practice.publisher;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.solace.practice.model.Order;
+import com.solace.practice.model.OrderDimensions;
+import com.solace.practice.model.OrderStatus;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class TopicCacheTest {
+
+    @Test
+    void holdsOneTopicPerRegionStatusAndPriority() {
+        TopicCache cache = new TopicCache("order/v1");
+        Set<String> names = new HashSet<>();
+        for (int r = 0; r < OrderDimensions.regionCount(); r++) {
+            for (OrderStatus status : OrderStatus.values()) {
+                for (int p = 0; p < OrderDimensions.priorityCount(); p++) {
+                    String name = cache.get(r, status, p).getName();
+                    assertEquals("order/v1/" + OrderDimensions.region(r) + "/" + status + "/"
+                            + OrderDimensions.priority(p), name);
+                    names.add(name);
+                }
+            }
+        }
+
+        assertEquals(cache.size(), names.size());
+        assertEquals(OrderDimensions.regionCount() * OrderStatus.values().length * OrderDimensions.priorityCount(),
+                cache.size());
+    }
+
+    @Test
+    void looksUpAnOrdersTopicWithoutBuildingOne() {
+        TopicCache cache = new TopicCache("order/v2");
+        Order order = new Order();
+        order.setRegion("EU");
+        order.setStatus(OrderStatus.SHIPPED);
+        order.setPriority("URGENT");
+
+        assertEquals("order/v2/EU/SHIPPED/URGENT", cache.get(order).getName());
+        assertSame(cache.get(order), cache.get(order));
+    }
+
+    @Test
+    void rejectsUnknownRegionsAndPriorities() {
+        TopicCache cache = new TopicCache("order/v1");
+        Order order = new Order();
+        order.setRegion("MARS");
+        order.setStatus(OrderStatus.CREATED);
+        order.setPriority("HIGH");
+
+        assertThrows(IllegalArgumentException.class, () -> cache.get(order));
+        order.setRegion("EU");
+        order.setPriority("WHENEVER");
+        assertThrows(IllegalArgumentException.class, () -> cache.get(order));
+    }
+}
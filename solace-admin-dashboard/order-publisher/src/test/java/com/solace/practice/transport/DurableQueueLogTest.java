@@ -0,0 +1,198 @@
+package com.solace.practice.transport;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DurableQueueLogTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversUnackedMessagesAfterACrash() {
+        DurableQueueLog log = DurableQueueLog.open(directory, SEGMENT_SIZE, failOnRecovery());
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            offsets.add(log.append("order/v1/EU/PAID/HIGH", payload(i), 1000 + i));
+        }
+        for (int i = 0; i < 10; i += 2) {
+            log.ack(offsets.get(i));
+        }
+        log.markDispatched(offsets.get(4));
+
+        // No close: the process dies with the log mapped, as after a kill
+        List<Recovered> recovered = recover();
+
+        assertEquals(5, recovered.size());
+        for (int n = 0; n < 5; n++) {
+            int i = 2 * n + 1;
+            Recovered message = recovered.get(n);
+            assertEquals(offsets.get(i), message.offset);
+            assertEquals("order/v1/EU/PAID/HIGH", message.topic);
+            assertArrayEquals(payload(i), message.payload);
+            assertEquals(1000 + i, message.sendTimeNanos);
+            assertEquals(i < 4, message.redelivered, "only messages handed out before the crash are redelivered");
+        }
+    }
+
+    @Test
+    void ignoresARecordWhoseLengthWasNeverWritten() throws IOException {
+        DurableQueueLog log = DurableQueueLog.open(directory, SEGMENT_SIZE, failOnRecovery());
+        long first = log.append("t", payload(0), 0);
+        long second = log.append("t", payload(1), 0);
+        long torn = second + (second - first);
+        // Everything but the length, which an append writes last
+        ByteBuffer partial = ByteBuffer.allocate(16 + 1 + 7);
+        partial.putInt(0).putShort((short) 1).putShort((short) 0).putLong(0).put((byte) 't').put(payload(2));
+        partial.flip();
+        try (FileChannel channel = FileChannel.open(segmentFile(0), StandardOpenOption.WRITE)) {
+            channel.write(partial, torn);
+        }
+
+        List<Recovered> recovered = new ArrayList<>();
+        DurableQueueLog reopened = DurableQueueLog.open(directory, SEGMENT_SIZE, collectInto(recovered));
+
+        assertEquals(List.of(first, second), offsetsOf(recovered));
+        assertEquals(torn, reopened.append("t", payload(3), 0), "the torn record's space is reused");
+        List<Recovered> again = recover();
+        assertEquals(List.of(first, second, torn), offsetsOf(again));
+        assertArrayEquals(payload(3), again.get(2).payload);
+    }
+
+    @Test
+    void appendsAfterRecoveryFollowTheRecoveredMessages() {
+        DurableQueueLog log = DurableQueueLog.open(directory, SEGMENT_SIZE, failOnRecovery());
+        long before = log.append("t", payload(0), 0);
+
+        DurableQueueLog reopened = DurableQueueLog.open(directory, SEGMENT_SIZE, (o, t, p, s, r) -> { });
+        long after = reopened.append("t", payload(1), 0);
+
+        assertTrue(after > before);
+        assertEquals(List.of(before, after), offsetsOf(recover()));
+    }
+
+    @Test
+    void deletesSegmentsOnceEveryMessageInThemIsAcked() throws IOException {
+        DurableQueueLog log = DurableQueueLog.open(directory, SEGMENT_SIZE, failOnRecovery());
+        List<Long> offsets = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            offsets.add(log.append("order/v1/EU/PAID/HIGH", payload(i), 0));
+        }
+        int written = log.segmentCount();
+        assertTrue(written > 3, written + " segments");
+
+        for (long offset : offsets.subList(0, 199)) {
+            log.ack(offset);
+            log.ack(offset);
+        }
+
+        assertEquals(1, log.segmentCount(), "the active segment stays");
+        assertEquals(1, segmentFiles());
+        assertEquals(List.of(offsets.get(199)), offsetsOf(recover()));
+    }
+
+    @Test
+    void offsetsKeepGrowingWhenEverySegmentIsGone() throws IOException {
+        DurableQueueLog log = DurableQueueLog.open(directory, SEGMENT_SIZE, failOnRecovery());
+        long last = 0;
+        for (int i = 0; i < 100; i++) {
+            last = log.append("t", payload(i), 0);
+            log.markDispatched(last);
+            log.ack(last);
+        }
+        // Only the cursor is left, as when the queue's segments were purged
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.endsWith("cursor")) {
+                    Files.delete(file);
+                }
+            }
+        }
+
+        DurableQueueLog reopened = DurableQueueLog.open(directory, SEGMENT_SIZE, failOnRecovery());
+
+        assertTrue(reopened.append("t", payload(0), 0) > last);
+    }
+
+    @Test
+    void rejectsBadSegmentSizesAndOversizedMessages() {
+        assertThrows(IllegalArgumentException.class, () -> DurableQueueLog.open(directory, 1000, failOnRecovery()));
+        assertThrows(IllegalArgumentException.class, () -> DurableQueueLog.open(directory, 512, failOnRecovery()));
+        DurableQueueLog log = DurableQueueLog.open(directory, SEGMENT_SIZE, failOnRecovery());
+        assertThrows(IllegalArgumentException.class, () -> log.append("t", new byte[SEGMENT_SIZE], 0));
+        assertFalse(Files.exists(segmentFile(SEGMENT_SIZE)));
+    }
+
+    private List<Recovered> recover() {
+        List<Recovered> recovered = new ArrayList<>();
+        DurableQueueLog.open(directory, SEGMENT_SIZE, collectInto(recovered));
+        return recovered;
+    }
+
+    private Path segmentFile(long base) {
+        return directory.resolve(String.format("%020d.log", base));
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".log")).count();
+        }
+    }
+
+    private static byte[] payload(int i) {
+        return String.format("order-%d", i % 10).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<Long> offsetsOf(List<Recovered> recovered) {
+        List<Long> offsets = new ArrayList<>();
+        for (Recovered message : recovered) {
+            offsets.add(message.offset);
+        }
+        return offsets;
+    }
+
+    private static DurableQueueLog.RecoveryVisitor failOnRecovery() {
+        return (offset, topic, payload, sendTimeNanos, redelivered) -> {
+            throw new AssertionError("unexpected message at " + offset);
+        };
+    }
+
+    private static DurableQueueLog.RecoveryVisitor collectInto(List<Recovered> recovered) {
+        return (offset, topic, payload, sendTimeNanos, redelivered) ->
+                recovered.add(new Recovered(offset, topic, payload, sendTimeNanos, redelivered));
+    }
+
+    private static final class Recovered {
+        final long offset;
+        final String topic;
+        final byte[] payload;
+        final long sendTimeNanos;
+        final boolean redelivered;
+
+        Recovered(long offset, String topic, byte[] payload, long sendTimeNanos, boolean redelivered) {
+            this.offset = offset;
+            this.topic = topic;
+            this.payload = payload;
+            this.sendTimeNanos = sendTimeNanos;
+            this.redelivered = redelivered;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.solace.practice.transport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class TopicPatternTest {
+
+    @Test
+    void literalLevelsMatchExactly() {
+        TopicPattern pattern = new TopicPattern("order/v1/EU/PAID/HIGH");
+
+        assertTrue(pattern.matches("order/v1/EU/PAID/HIGH"));
+        assertFalse(pattern.matches("order/v1/EU/PAID/HIGHER"));
+        assertFalse(pattern.matches("order/v1/EU/PAID"));
+        assertFalse(pattern.matches("order/v1/EU/PAID/HIGH/extra"));
+        assertFalse(pattern.matches("order/v1/EU/PAI/HIGH"));
+    }
+
+    @Test
+    void starMatchesExactlyOneLevel() {
+        TopicPattern pattern = new TopicPattern("order/*/EU/*/HIGH");
+
+        assertTrue(pattern.matches("order/v1/EU/PAID/HIGH"));
+        assertTrue(pattern.matches("order/v2/EU/SHIPPED/HIGH"));
+        assertFalse(pattern.matches("order/v1/US-EAST/PAID/HIGH"));
+        assertFalse(pattern.matches("order/v1/EU/HIGH"), "'*' does not match zero levels");
+        assertFalse(pattern.matches("order/v1/x/EU/PAID/HIGH"), "'*' does not match two levels");
+    }
+
+    @Test
+    void prefixStarMatchesLevelsStartingWithThePrefix() {
+        TopicPattern pattern = new TopicPattern("order/v1/US-*/CREATED");
+
+        assertTrue(pattern.matches("order/v1/US-EAST/CREATED"));
+        assertTrue(pattern.matches("order/v1/US-WEST/CREATED"));
+        assertTrue(pattern.matches("order/v1/US-/CREATED"));
+        assertFalse(pattern.matches("order/v1/EU/CREATED"));
+        assertFalse(pattern.matches("order/v1/US/CREATED"));
+        assertFalse(pattern.matches("order/v1/US-EAST/extra/CREATED"));
+    }
+
+    @Test
+    void greaterThanMatchesOneOrMoreTrailingLevels() {
+        TopicPattern pattern = new TopicPattern("order/v1/>");
+
+        assertTrue(pattern.matches("order/v1/EU"));
+        assertTrue(pattern.matches("order/v1/EU/PAID/HIGH"));
+        assertFalse(pattern.matches("order/v1"), "'>' needs at least one more level");
+        assertFalse(pattern.matches("order/v2/EU/PAID/HIGH"));
+        assertFalse(pattern.matches("orders/v1/EU"));
+    }
+
+    @Test
+    void combinesWildcards() {
+        TopicPattern pattern = new TopicPattern("order/*/US-*/CREATED/>");
+
+        assertTrue(pattern.matches("order/v2/US-EAST/CREATED/URGENT"));
+        assertTrue(pattern.matches("order/v1/US-WEST/CREATED/NORMAL/x"));
+        assertFalse(pattern.matches("order/v1/US-WEST/CREATED"));
+        assertFalse(pattern.matches("order/v1/EU/CREATED/NORMAL"));
+        assertTrue(new TopicPattern(">").matches("anything/at/all"));
+        assertTrue(new TopicPattern("*").matches("one"));
+        assertFalse(new TopicPattern("*").matches("one/two"));
+    }
+
+    @Test
+    void rejectsMisplacedWildcards() {
+        assertThrows(IllegalArgumentException.class, () -> new TopicPattern(""));
+        assertThrows(IllegalArgumentException.class, () -> new TopicPattern(null));
+        assertThrows(IllegalArgumentException.class, () -> new TopicPattern("order/*x/EU"));
+        assertThrows(IllegalArgumentException.class, () -> new TopicPattern("order/>/EU"));
+        assertEquals("order/v1/>", new TopicPattern("order/v1/>").toString());
+    }
+}